@@ -0,0 +1,41 @@
+package com.game.oop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures level generation in {@link GameWorld#spawnDoors()} as the number of requested doors grows. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoorSpawnBenchmark {
+    @Param({"1", "100", "10000", "100000"})
+    public int doors;
+
+    private GameWorld world;
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld(4000, 4000);
+        world.setDoorCount(doors);
+    }
+
+    @Benchmark
+    public GameWorld spawnDoors() {
+        world.spawnDoors();
+        return world;
+    }
+}
@@ -0,0 +1,85 @@
+package com.game.oop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares range checks over a point cloud: the old {@code Math.hypot} comparison, a per-point squared-distance
+ * call, and the batched {@link GameMath#clearInsideBox} kernel the world's dormancy pass runs, over the square
+ * around the same circle. The kernel takes the Vector API path when the run adds {@code jdk.incubator.vector}, as
+ * {@code ./gradlew :benchmarks:jmh} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameMathBenchmark {
+    private static final double RADIUS = 150;
+
+    @Param({"100", "10000", "100000"})
+    public int points;
+
+    private double[] xs;
+    private double[] ys;
+    private boolean[] flags;
+    private double cx;
+    private double cy;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        xs = new double[points];
+        ys = new double[points];
+        flags = new boolean[points];
+        for (int i = 0; i < points; i++) {
+            xs[i] = random.nextDouble() * 2000;
+            ys[i] = random.nextDouble() * 2000;
+        }
+        cx = 1000;
+        cy = 1000;
+    }
+
+    @Benchmark
+    public int hypot() {
+        int hits = 0;
+        for (int i = 0; i < points; i++) {
+            if (Math.hypot(xs[i] - cx, ys[i] - cy) <= RADIUS) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int squaredPerPoint() {
+        int hits = 0;
+        for (int i = 0; i < points; i++) {
+            if (GameMath.withinRange(xs[i], ys[i], cx, cy, RADIUS)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int batched() {
+        Arrays.fill(flags, true);
+        return points - GameMath.clearInsideBox(xs, ys, flags, points, cx - RADIUS, cy - RADIUS, cx + RADIUS,
+                cy + RADIUS);
+    }
+}
@@ -0,0 +1,92 @@
+package com.game.oop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single simulation tick and of its individual phases at increasing entity counts.
+ * The player is made invulnerable so collisions never reset the world mid-measurement, and the population is
+ * rebuilt before every iteration so entities drifting off-screen do not shrink the workload over time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameWorldBenchmark {
+    private static final double WIDTH = 4000;
+    private static final double HEIGHT = 4000;
+
+    @Param({"1", "100", "10000", "100000"})
+    public int entities;
+
+    private final Set<GameWorld.Input> inputs = EnumSet.of(GameWorld.Input.RIGHT);
+    private final RenderFrame frame = new RenderFrame();
+    private final FrameRenderer renderer = new NullFrameRenderer();
+    private GameWorld world;
+    private double dt;
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        world = new GameWorld(WIDTH, HEIGHT);
+        world.setPlayerInvulnerable(true);
+        world.clearMonsters();
+        dt = 1.0 / GameWorld.DEFAULT_TICK_RATE;
+
+        Random random = new Random(42);
+        for (int i = 0; i < entities; i++) {
+            double x = random.nextDouble() * WIDTH;
+            double y = random.nextDouble() * HEIGHT;
+            world.addMonster(MonsterKind.values()[i % 3], x, y);
+            // Stationary projectiles keep the population constant for the whole iteration.
+            world.spawnProjectile(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT, 0, 0, 0);
+        }
+    }
+
+    @Benchmark
+    public GameWorld update() {
+        world.tick(inputs);
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld updateMonsters() {
+        world.updateMonsters(dt);
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld updateProjectiles() {
+        world.updateProjectiles(dt);
+        return world;
+    }
+
+    @Benchmark
+    public RenderFrame writeFrame() {
+        world.writeFrame(frame);
+        renderer.render(frame);
+        return frame;
+    }
+
+    @Benchmark
+    public GameWorld updatePlayerMovement() {
+        world.updatePlayerMovement(dt, inputs);
+        return world;
+    }
+}
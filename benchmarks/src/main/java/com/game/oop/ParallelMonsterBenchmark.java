@@ -0,0 +1,58 @@
+package com.game.oop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Compares inline and striped fork/join monster updates on large mixed hordes. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMonsterBenchmark {
+    private static final double WIDTH = 4000;
+    private static final double HEIGHT = 4000;
+
+    @Param({"10000", "100000"})
+    public int monsters;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private GameWorld world;
+    private double dt;
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        world = new GameWorld(WIDTH, HEIGHT);
+        world.setPlayerInvulnerable(true);
+        world.setParallelMonsterUpdates(parallel);
+        world.clearMonsters();
+        dt = 1.0 / GameWorld.DEFAULT_TICK_RATE;
+
+        Random random = new Random(42);
+        for (int i = 0; i < monsters; i++) {
+            world.addMonster(MonsterKind.values()[i % 3], random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT);
+        }
+    }
+
+    @Benchmark
+    public GameWorld updateMonsters() {
+        world.updateMonsters(dt);
+        return world;
+    }
+}
@@ -1,87 +0,0 @@
-import com.badlogic.gdx.ApplicationAdapter;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-
-import java.util.EnumSet;
-import java.util.Set;
-
-public class DungeonEscapeGame extends ApplicationAdapter {
-    private GameWorld world;
-    private ShapeRenderer shapeRenderer;
-    private SpriteBatch spriteBatch;
-    private BitmapFont font;
-    private final Set<GameWorld.Input> activeInputs = EnumSet.noneOf(GameWorld.Input.class);
-    private double elapsedTimeSeconds = 0;
-    private OrthographicCamera camera;
-
-    @Override
-    public void create() {
-        shapeRenderer = new ShapeRenderer();
-        spriteBatch = new SpriteBatch();
-        font = new BitmapFont();
-        font.getData().setScale(1.2f);
-        camera = new OrthographicCamera();
-        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        world = new GameWorld(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-    }
-
-    @Override
-    public void render() {
-        float delta = Gdx.graphics.getDeltaTime();
-        elapsedTimeSeconds += delta;
-        updateInputs();
-        world.update(delta, activeInputs, elapsedTimeSeconds);
-
-        Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-
-        camera.update();
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        spriteBatch.setProjectionMatrix(camera.combined);
-        world.render(shapeRenderer, spriteBatch, font);
-    }
-
-    private void updateInputs() {
-        activeInputs.clear();
-        if (Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP)) {
-            activeInputs.add(GameWorld.Input.UP);
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-            activeInputs.add(GameWorld.Input.DOWN);
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            activeInputs.add(GameWorld.Input.LEFT);
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            activeInputs.add(GameWorld.Input.RIGHT);
-        }
-    }
-
-    @Override
-    public void resize(int width, int height) {
-        if (world != null) {
-            world.resize(width, height);
-        }
-        if (camera != null) {
-            camera.setToOrtho(false, width, height);
-        }
-    }
-
-    @Override
-    public void dispose() {
-        if (shapeRenderer != null) {
-            shapeRenderer.dispose();
-        }
-        if (spriteBatch != null) {
-            spriteBatch.dispose();
-        }
-        if (font != null) {
-            font.dispose();
-        }
-    }
-}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Headless balancing harness. For every combination of the cooldown grid and every requested stage it plays
+ * many independent attempts in parallel. Each attempt starts a fresh seeded world at that stage and drives it
+ * with an {@link InputPolicy} until the player takes a PASS or BACK door, dies or runs out of time. It prints
+ * outcome rates and time-to-door percentiles per stage. Attempts are seeded from their index, so a run is
+ * reproducible regardless of thread count.
+ *
+ * <pre>
+ * --attempts N          attempts per stage and grid point (default 10000)
+ * --stages 1-6          stage range or single stage (default: every stage in the table)
+ * --table FILE          stage definitions to balance (default: built-in stages)
+ * --policy seek|random  input policy (default seek)
+ * --timeout S           simulated seconds before an attempt is abandoned (default 60)
+ * --seed L              base seed (default 1)
+ * --stun a,b,...        pulse cooldowns to sweep over the table's tuning; likewise --warp and --shooter
+ * </pre>
+ */
+final class BalanceRunner {
+    private static final double WIDTH = 960;
+    private static final double HEIGHT = 640;
+
+    private static final int ADVANCED = 0;
+    private static final int WENT_BACK = 1;
+    private static final int DIED = 2;
+    private static final int TIMED_OUT = 3;
+    private static final int OUTCOMES = 4;
+
+    private int attempts = 10_000;
+    private int firstStage = 1;
+    private int lastStage = -1;
+    private StageTable table = StageTable.DEFAULTS;
+    private String policyName = "seek";
+    private double timeoutSeconds = 60;
+    private long seed = 1;
+    private final Map<MonsterKind, String> sweeps = new LinkedHashMap<>();
+
+    /** Outcome counts and time-to-door distribution for one stage at one grid point; merged across workers. */
+    private static final class Cell {
+        final long[] outcomes = new long[OUTCOMES];
+        final LatencyHistogram doorMillis = new LatencyHistogram();
+
+        void merge(Cell other) {
+            for (int i = 0; i < OUTCOMES; i++) {
+                outcomes[i] += other.outcomes[i];
+            }
+            doorMillis.add(other.doorMillis);
+        }
+    }
+
+    public static void main(String[] args) {
+        BalanceRunner runner = new BalanceRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        runner.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + flag);
+            }
+            String value = args[++i];
+            switch (flag) {
+                case "--attempts" -> attempts = Integer.parseInt(value);
+                case "--stages" -> {
+                    String[] range = value.split("-");
+                    firstStage = Integer.parseInt(range[0]);
+                    lastStage = Integer.parseInt(range[range.length - 1]);
+                }
+                case "--policy" -> policyName = value;
+                case "--timeout" -> timeoutSeconds = Double.parseDouble(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--table" -> table = loadTable(value);
+                case "--stun" -> sweeps.put(MonsterKind.STUN, value);
+                case "--warp" -> sweeps.put(MonsterKind.WARP, value);
+                case "--shooter" -> sweeps.put(MonsterKind.SHOOTER, value);
+                default -> throw new IllegalArgumentException("Unknown option " + flag);
+            }
+        }
+        policy(policyName);
+        if (lastStage < 0) {
+            lastStage = table.stageCount();
+        }
+    }
+
+    private static StageTable loadTable(String file) {
+        try {
+            return StageTable.load(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Cartesian product of the table's tuning with every swept cooldown list. */
+    private List<MonsterTuning> grid() {
+        List<MonsterTuning> grid = new ArrayList<>(List.of(table.tuning()));
+        for (Map.Entry<MonsterKind, String> sweep : sweeps.entrySet()) {
+            List<MonsterTuning> expanded = new ArrayList<>();
+            for (MonsterTuning tuning : grid) {
+                for (String value : sweep.getValue().split(",")) {
+                    expanded.add(tuning.withSkillCooldown(sweep.getKey(), Double.parseDouble(value)));
+                }
+            }
+            grid = expanded;
+        }
+        return grid;
+    }
+
+    private static Supplier<InputPolicy> policy(String name) {
+        return switch (name) {
+            case "seek" -> DoorSeekerPolicy::new;
+            case "random" -> RandomWalkPolicy::new;
+            default -> throw new IllegalArgumentException("Unknown policy " + name + " (expected seek or random)");
+        };
+    }
+
+    private void run() {
+        Supplier<InputPolicy> policies = policy(policyName);
+        int maxTicks = (int) Math.ceil(timeoutSeconds * GameWorld.DEFAULT_TICK_RATE);
+        long started = System.nanoTime();
+        long total = 0;
+        for (MonsterTuning tuning : grid()) {
+            System.out.printf("%s  policy=%s%n", tuning, policyName);
+            System.out.printf("%-5s %-8s %9s %8s %8s %8s %8s %9s %9s %9s%n", "stage", "kind", "attempts",
+                    "advance", "back", "death", "timeout", "door p50", "door p90", "door p99");
+            for (int stage = firstStage; stage <= lastStage; stage++) {
+                int attemptStage = stage;
+                Cell cell = IntStream.range(0, attempts).parallel().collect(Cell::new,
+                        (c, i) -> attempt(c, table, tuning, attemptStage, policies.get(),
+                                attemptSeed(attemptStage, i), maxTicks),
+                        Cell::merge);
+                print(stage, cell);
+                total += attempts;
+            }
+            System.out.println();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        System.err.printf("%d attempts in %.1f s (%.0f attempts/s)%n", total, seconds, total / seconds);
+    }
+
+    private long attemptSeed(int stage, int index) {
+        long z = seed + (((long) stage << 40) | index) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void attempt(Cell cell, StageTable table, MonsterTuning tuning, int stage, InputPolicy policy,
+                                long seed, int maxTicks) {
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, GameWorld.DEFAULT_TICK_RATE, seed);
+        world.getProfiler().setEnabled(false);
+        world.setStageTable(table);
+        world.setMonsterTuning(tuning);
+        world.startAtStage(stage);
+        SplittableRandom random = new SplittableRandom(~seed);
+        for (int tick = 1; tick <= maxTicks; tick++) {
+            world.tick(policy.next(world, random));
+            DoorType door = world.takeLastDoor();
+            if (door != null) {
+                cell.outcomes[door == DoorType.PASS ? ADVANCED : WENT_BACK]++;
+                cell.doorMillis.record(Math.round(tick * 1000 / GameWorld.DEFAULT_TICK_RATE));
+                return;
+            }
+            if (world.isDead()) {
+                cell.outcomes[DIED]++;
+                return;
+            }
+        }
+        cell.outcomes[TIMED_OUT]++;
+    }
+
+    private void print(int stage, Cell cell) {
+        double scale = 100.0 / attempts;
+        System.out.printf("%-5d %-8s %9d %7.1f%% %7.1f%% %7.1f%% %7.1f%% %9s %9s %9s%n", stage,
+                table.monsterKind(stage), attempts,
+                cell.outcomes[ADVANCED] * scale, cell.outcomes[WENT_BACK] * scale,
+                cell.outcomes[DIED] * scale, cell.outcomes[TIMED_OUT] * scale,
+                seconds(cell.doorMillis.percentile(0.50)), seconds(cell.doorMillis.percentile(0.90)),
+                seconds(cell.doorMillis.percentile(0.99)));
+    }
+
+    private static String seconds(long millis) {
+        return String.format("%.2fs", millis / 1000.0);
+    }
+}
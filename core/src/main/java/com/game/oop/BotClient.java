@@ -0,0 +1,211 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator and loopback test for {@link GameServer}. Every bot is a virtual thread driving a
+ * {@link RemoteSession} at 60 frames per second, exactly as a front end does. It random-walks by holding new keys
+ * now and then, and the session predicts, reconciles and checks every snapshot against the hash the server sent.
+ * With {@code --latency} the bots connect through a {@link LatencySimulator}. At the end it prints snapshot
+ * rates and sizes and how often prediction had to be corrected. It exits with status 1 if any snapshot failed to
+ * decode or any bot lost its connection.
+ *
+ * <pre>
+ * --host H        server host (default localhost)
+ * --port N        server port (default 7777)
+ * --local         start a server in this process on a free port instead
+ * --rooms N       rooms to fill (default 10)
+ * --bots N        bots per room (default 4)
+ * --idle-rooms N  rooms, out of --rooms, whose bots never press a key (default 0)
+ * --seconds S     how long the bots play (default 10)
+ * --latency MS    one-way latency to simulate (default 0: connect directly)
+ * --jitter MS     jitter to simulate on top of the latency (default 0)
+ * --seed L        seed for the bots' input choices (default 1)
+ * --checkpoint-dir D, --checkpoint-seconds S
+ *                 with --local, checkpoint the rooms as {@link GameServer} does
+ * </pre>
+ */
+final class BotClient implements Runnable {
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    /** Chance per frame that a bot lets go of its keys and picks new ones. */
+    private static final double TURN_CHANCE = 0.03;
+
+    /** Totals across all bots. */
+    private static final class Stats {
+        final LongAdder snapshots = new LongAdder();
+        final LongAdder fullSnapshots = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder mismatches = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder ticks = new LongAdder();
+        final LongAdder corrections = new LongAdder();
+        final DoubleAdder correctedDistance = new DoubleAdder();
+        final LongAdder unacknowledged = new LongAdder();
+        final LongAdder underruns = new LongAdder();
+    }
+
+    private final InetSocketAddress address;
+    private final String room;
+    private final SplittableRandom random;
+    private final boolean idle;
+    private final long deadline;
+    private final Stats stats;
+
+    private BotClient(InetSocketAddress address, String room, boolean idle, long seed, long deadline, Stats stats) {
+        this.address = address;
+        this.room = room;
+        this.idle = idle;
+        this.random = new SplittableRandom(seed);
+        this.deadline = deadline;
+        this.stats = stats;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "localhost";
+        int port = NetProtocol.DEFAULT_PORT;
+        boolean local = false;
+        int rooms = 10;
+        int botsPerRoom = 4;
+        int idleRooms = 0;
+        double seconds = 10;
+        double latency = 0;
+        double jitter = 0;
+        long seed = 1;
+        Path checkpointDir = null;
+        double checkpointSeconds = GameServer.DEFAULT_CHECKPOINT_SECONDS;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (flag.equals("--local")) {
+                    local = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--host" -> host = value;
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--rooms" -> rooms = Integer.parseInt(value);
+                    case "--bots" -> botsPerRoom = Integer.parseInt(value);
+                    case "--idle-rooms" -> idleRooms = Integer.parseInt(value);
+                    case "--seconds" -> seconds = Double.parseDouble(value);
+                    case "--latency" -> latency = Double.parseDouble(value);
+                    case "--jitter" -> jitter = Double.parseDouble(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--checkpoint-dir" -> checkpointDir = Path.of(value);
+                    case "--checkpoint-seconds" -> checkpointSeconds = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        GameServer server = local ? GameServer.start(0, GameWorld.DEFAULT_TICK_RATE, GameServer.DEFAULT_SNAPSHOT_RATE,
+                Runtime.getRuntime().availableProcessors(), seed, checkpointDir, checkpointSeconds) : null;
+        InetSocketAddress address = new InetSocketAddress(host, server != null ? server.port() : port);
+        LatencySimulator simulator = latency > 0 || jitter > 0
+                ? LatencySimulator.start(0, address, latency, jitter) : null;
+        if (simulator != null) {
+            address = new InetSocketAddress("localhost", simulator.port());
+        }
+        Stats stats = new Stats();
+        long started = System.nanoTime();
+        long deadline = started + (long) (seconds * 1e9);
+        try (ExecutorService bots = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int r = 0; r < rooms; r++) {
+                for (int b = 0; b < botsPerRoom; b++) {
+                    bots.execute(new BotClient(address, "room-" + r, r < idleRooms, seed * 31 + r * botsPerRoom + b,
+                            deadline, stats));
+                }
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        if (simulator != null) {
+            simulator.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+
+        long snapshots = stats.snapshots.sum();
+        long full = stats.fullSnapshots.sum();
+        long ticks = Math.max(1, stats.ticks.sum());
+        long corrections = stats.corrections.sum();
+        System.out.printf("%d bots in %d rooms for %.1f s%n", rooms * botsPerRoom, rooms, elapsed);
+        System.out.printf("snapshots   %d (%.0f/s), %d full, %d delta%n", snapshots, snapshots / elapsed, full,
+                snapshots - full);
+        System.out.printf("bytes       %.1f per snapshot, %.1f KB/s in total%n",
+                snapshots == 0 ? 0 : (double) stats.bytes.sum() / snapshots, stats.bytes.sum() / 1024.0 / elapsed);
+        System.out.printf("prediction  %d corrections in %d ticks (%.2f%%), %.1f px on average,"
+                        + " %.1f inputs in flight%n",
+                corrections, ticks, 100.0 * corrections / ticks,
+                corrections == 0 ? 0 : stats.correctedDistance.sum() / corrections,
+                (double) stats.unacknowledged.sum() / ticks);
+        System.out.printf("entities    %d interpolation underruns%n", stats.underruns.sum());
+        System.out.printf("mismatches  %d, lost connections %d%n", stats.mismatches.sum(), stats.failures.sum());
+        if (snapshots == 0 || stats.mismatches.sum() > 0 || stats.failures.sum() > 0) {
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void run() {
+        RemoteSession session;
+        try {
+            session = RemoteSession.connect(address, room, 960, 640);
+        } catch (IOException e) {
+            stats.failures.increment();
+            System.err.println("Bot in " + room + " could not connect: " + e);
+            return;
+        }
+        InputQueue inputs = new InputQueue();
+        long last = System.nanoTime();
+        long nextFrame = last + FRAME_NANOS;
+        while (nextFrame < deadline && session.failure() == null) {
+            LockSupport.parkNanos(nextFrame - System.nanoTime());
+            long now = System.nanoTime();
+            if (!idle && random.nextDouble() < TURN_CHANCE) {
+                // Stamped somewhere in the last frame, as key events are by the time a front end sees them.
+                inputs.hold(random.nextInt(InputMask.COMBINATIONS), now - random.nextLong(FRAME_NANOS));
+            }
+            int ticks = session.update((now - last) / 1e9, inputs, now);
+            if (ticks > 0) {
+                stats.ticks.add(ticks);
+                stats.unacknowledged.add((long) ticks * session.prediction().unacknowledged());
+            }
+            last = now;
+            nextFrame += FRAME_NANOS;
+        }
+        IOException failure = session.failure();
+        session.close();
+        if (failure != null) {
+            stats.failures.increment();
+            System.err.println("Bot in " + room + " failed: " + failure);
+        }
+        stats.snapshots.add(session.snapshots());
+        stats.fullSnapshots.add(session.fullSnapshots());
+        stats.bytes.add(session.bytesReceived());
+        stats.mismatches.add(session.mismatches());
+        if (session.prediction() != null) {
+            stats.corrections.add(session.prediction().corrections());
+            stats.correctedDistance.add(session.prediction().correctedDistance());
+        }
+        if (session.interpolator() != null) {
+            stats.underruns.add(session.interpolator().underruns());
+        }
+    }
+}
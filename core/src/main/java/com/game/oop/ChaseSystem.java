@@ -0,0 +1,40 @@
+package com.game.oop;
+
+final class ChaseSystem {
+    private ChaseSystem() {
+    }
+
+    /**
+     * Moves every chasing monster in slots {@code [from, to)} that is neither busy with a skill nor dormant toward
+     * the nearest of the first {@code targetCount} targets.
+     */
+    static void run(MonsterStore monsters, int from, int to, double[] targetX, double[] targetY, int targetCount,
+                    double dt) {
+        int[] members = monsters.members(MonsterStore.CHASE);
+        int end = monsters.firstMember(MonsterStore.CHASE, to);
+        double[] x = monsters.x;
+        double[] y = monsters.y;
+        for (int m = monsters.firstMember(MonsterStore.CHASE, from); m < end; m++) {
+            int i = members[m];
+            if (monsters.busy[i] || monsters.dormant[i]) {
+                continue;
+            }
+            int target = 0;
+            for (int t = 1; t < targetCount; t++) {
+                if (GameMath.distanceSquared(x[i], y[i], targetX[t], targetY[t])
+                        < GameMath.distanceSquared(x[i], y[i], targetX[target], targetY[target])) {
+                    target = t;
+                }
+            }
+            double dx = targetX[target] - x[i];
+            double dy = targetY[target] - y[i];
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance < 1e-6) {
+                continue;
+            }
+            double step = Math.min(distance, monsters.speed[i] * dt);
+            x[i] += (dx / distance) * step;
+            y[i] += (dy / distance) * step;
+        }
+    }
+}
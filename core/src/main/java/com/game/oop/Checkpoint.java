@@ -0,0 +1,82 @@
+package com.game.oop;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a world checkpoint: everything needed to resume a {@link GameWorld} exactly where it was, written by
+ * {@link GameWorld#writeCheckpoint} and read back by {@link GameWorld#readCheckpoint}. Little-endian, with a
+ * fixed-size header followed by fixed-size records, so a checkpoint is a handful of bulk primitive writes into a
+ * buffer and its size is known before writing:
+ * <pre>
+ * header       long seed, long random state, long map seed, double tick rate,
+ *              double view width, view height, width, height, layout width, layout height,
+ *              double current time, death started at, message until, resize settles at, door size,
+ *              int stage, layout version, next player id, flags, map columns, map rows, message,
+ *              int players, doors, monsters, projectiles
+ * players      int id, input sequence; double x, y, prev x, prev y, size, base speed, speed, stunned until
+ * doors        double x, y, size; int type, unused
+ * monsters     byte kind, phase; 6 unused; double x, y, prev x, prev y, speed, skill cooldown, radius,
+ *              last skill time, phase started at, target x, target y; long random state
+ * projectiles  double x, y, prev x, prev y, vx, vy, radius
+ * </pre>
+ * The tiles are not stored: dungeon maps are regenerated from their seed. Neither is the stage table, so a
+ * checkpoint resumes with whatever table the loading world uses, its stage clamped to that table.
+ * {@link CheckpointFile} stores checkpoints.
+ */
+final class Checkpoint {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int HEADER_BYTES = 3 * Long.BYTES + 12 * Double.BYTES + 11 * Integer.BYTES;
+    static final int PLAYER_BYTES = 2 * Integer.BYTES + 8 * Double.BYTES;
+    static final int DOOR_BYTES = 3 * Double.BYTES + 2 * Integer.BYTES;
+    static final int MONSTER_BYTES = 8 + 11 * Double.BYTES + Long.BYTES;
+    static final int PROJECTILE_BYTES = 7 * Double.BYTES;
+
+    static final int FLAG_DUNGEON = 1;
+    static final int FLAG_DEAD = 1 << 1;
+
+    /** The banner message, stored as one of these since the HUD only ever shows {@link HudText} instances. */
+    private static final int MESSAGE_NONE = 0;
+    private static final int MESSAGE_YOU_DIED = 1;
+    private static final int MESSAGE_RESPAWNED = 2;
+    private static final int MESSAGE_YOU_WIN = 3;
+    private static final int MESSAGE_SAVED = 4;
+    private static final int MESSAGE_LOADED = 5;
+    /** The current stage's banner. */
+    private static final int MESSAGE_STAGE = 6;
+
+    private Checkpoint() {
+    }
+
+    /** In {@code long}, so that counts read from a damaged checkpoint cannot overflow it. */
+    static long size(int players, int doors, int monsters, int projectiles) {
+        return HEADER_BYTES + (long) players * PLAYER_BYTES + (long) doors * DOOR_BYTES
+                + (long) monsters * MONSTER_BYTES + (long) projectiles * PROJECTILE_BYTES;
+    }
+
+    /** Code for {@code message} shown on {@code stage}; messages that are not one of the known ones are dropped. */
+    static int messageCode(String message, int stage) {
+        if (message == null) {
+            return MESSAGE_NONE;
+        }
+        return switch (message) {
+            case HudText.YOU_DIED -> MESSAGE_YOU_DIED;
+            case HudText.RESPAWNED -> MESSAGE_RESPAWNED;
+            case HudText.YOU_WIN -> MESSAGE_YOU_WIN;
+            case HudText.SAVED -> MESSAGE_SAVED;
+            case HudText.LOADED -> MESSAGE_LOADED;
+            default -> message.equals(HudText.stageBanner(stage)) ? MESSAGE_STAGE : MESSAGE_NONE;
+        };
+    }
+
+    static String message(int code, int stage) {
+        return switch (code) {
+            case MESSAGE_YOU_DIED -> HudText.YOU_DIED;
+            case MESSAGE_RESPAWNED -> HudText.RESPAWNED;
+            case MESSAGE_YOU_WIN -> HudText.YOU_WIN;
+            case MESSAGE_SAVED -> HudText.SAVED;
+            case MESSAGE_LOADED -> HudText.LOADED;
+            case MESSAGE_STAGE -> HudText.stageBanner(stage);
+            default -> null;
+        };
+    }
+}
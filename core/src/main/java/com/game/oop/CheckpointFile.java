@@ -0,0 +1,249 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One world's {@link Checkpoint} on disk, kept in a memory-mapped file with two slots. Each save writes the
+ * inactive slot and then stamps it with a higher generation, so the previous checkpoint stays intact until the
+ * new one is complete, and loading takes the newest slot whose CRC matches: a save torn by a crash falls back to
+ * the one before it. Saving is a copy into mapped memory; the file is only opened again when a checkpoint
+ * outgrows its slot. Without {@code durable} the operating system writes the pages back in its own time, which
+ * survives the process dying but not the machine; that is what lets a server checkpoint thousands of rooms a
+ * second. The layout, little-endian like the payload, is:
+ * <pre>
+ * file header  int magic "DCKP", short version, short unused, int slot capacity, int unused
+ * two slots    long generation, int length, int CRC32C of the payload, then the payload
+ * </pre>
+ * Not thread-safe; the thread that ticks the world saves and loads it.
+ */
+final class CheckpointFile {
+    private static final System.Logger LOG = System.getLogger(CheckpointFile.class.getName());
+    /** "DCKP" on disk. */
+    static final int MAGIC = 0x504B4344;
+    /** Bumped whenever the file or the {@link Checkpoint} layout changes; other versions are not read. */
+    static final int VERSION = 1;
+    private static final int FILE_HEADER = 16;
+    private static final int SLOT_HEADER = 16;
+    private static final int PAGE = 4096;
+
+    private final Path path;
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer map;
+    private int capacity;
+    private long generation;
+
+    private CheckpointFile(Path path) {
+        this.path = path;
+    }
+
+    /** Opens {@code path}, creating an empty checkpoint file if there is none. */
+    static CheckpointFile open(Path path) throws IOException {
+        CheckpointFile file = new CheckpointFile(path);
+        if (Files.exists(path) && Files.size(path) >= FILE_HEADER) {
+            file.mapExisting();
+        } else {
+            file.remap(slotCapacityFor(Checkpoint.HEADER_BYTES + SLOT_HEADER));
+        }
+        return file;
+    }
+
+    /** Where quick-saves go: {@code -Ddungeon.quicksave=<file>}, by default {@code quicksave.dckp}. */
+    static Path quickSavePath() {
+        return Path.of(System.getProperty("dungeon.quicksave", "quicksave.dckp"));
+    }
+
+    /**
+     * The quick-save file at {@link #quickSavePath()}, opened on first use and kept mapped from then on. The loop
+     * that ticks the world owns one and uses it from that thread only.
+     */
+    static final class QuickSave {
+        private final Path path = quickSavePath();
+        private CheckpointFile file;
+
+        /** Saves {@code world} durably; logs instead of throwing and returns success. */
+        boolean save(GameWorld world) {
+            try {
+                if (file == null) {
+                    file = open(path);
+                }
+                file.save(world, true);
+                world.showMessage(HudText.SAVED);
+                LOG.log(System.Logger.Level.INFO, "Saved checkpoint to {0}", path);
+                return true;
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "Could not save checkpoint to " + path, e);
+                file = null;
+                return false;
+            }
+        }
+
+        /**
+         * Loads the quick-save into {@code world}; logs instead of throwing and returns success. Refused while a
+         * replay is being recorded, since a replay must run from its seed alone.
+         */
+        boolean load(GameWorld world) {
+            if (world.isRecording()) {
+                LOG.log(System.Logger.Level.WARNING, "Quick-load is disabled while a replay is being recorded");
+                return false;
+            }
+            try {
+                if (file == null && Files.exists(path)) {
+                    file = open(path);
+                }
+                if (file == null || !file.load(world)) {
+                    LOG.log(System.Logger.Level.INFO, "No checkpoint to load in {0}", path);
+                    return false;
+                }
+                world.showMessage(HudText.LOADED);
+                return true;
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "Could not load checkpoint from " + path, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes {@code world} into the inactive slot and makes it the newest; with {@code durable} the slot is also
+     * forced to disk before returning. Returns the checkpoint's size in bytes.
+     */
+    int save(GameWorld world, boolean durable) throws IOException {
+        int length = world.checkpointSize();
+        if (length > capacity - SLOT_HEADER) {
+            grow(length + SLOT_HEADER);
+        }
+        long next = generation + 1;
+        int slot = slotOffset(next);
+        ByteBuffer payload = map.slice(slot + SLOT_HEADER, length).order(Checkpoint.ORDER);
+        world.writeCheckpoint(payload);
+        crc.reset();
+        crc.update(payload.flip());
+        map.putInt(slot + 8, length);
+        map.putInt(slot + 12, (int) crc.getValue());
+        // The generation goes last: until it is stamped, loading still picks the other slot.
+        map.putLong(slot, next);
+        generation = next;
+        if (durable) {
+            map.force(slot, SLOT_HEADER + length);
+        }
+        return length;
+    }
+
+    /**
+     * Restores {@code world} from the newest intact slot. Returns {@code false} if the file holds no checkpoint.
+     *
+     * @throws IOException if no slot is intact or the world rejects the checkpoint
+     */
+    boolean load(GameWorld world) throws IOException {
+        int newest = newestIntactSlot();
+        if (newest < 0) {
+            if (map.getLong(FILE_HEADER) != 0 || map.getLong(FILE_HEADER + capacity) != 0) {
+                throw new IOException("No intact checkpoint in " + path);
+            }
+            return false;
+        }
+        ByteBuffer payload = map.slice(newest + SLOT_HEADER, map.getInt(newest + 8)).order(Checkpoint.ORDER);
+        try {
+            world.readCheckpoint(payload);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + " in " + path, e);
+        }
+        return true;
+    }
+
+    /** Offset of the slot with the highest generation whose CRC matches, or -1 if neither does. */
+    private int newestIntactSlot() {
+        int newest = -1;
+        long newestGeneration = 0;
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = FILE_HEADER + slot * capacity;
+            long slotGeneration = map.getLong(offset);
+            if (slotGeneration > newestGeneration && intact(offset)) {
+                newest = offset;
+                newestGeneration = slotGeneration;
+            }
+        }
+        return newest;
+    }
+
+    private boolean intact(int offset) {
+        int length = map.getInt(offset + 8);
+        if (length < 0 || length > capacity - SLOT_HEADER) {
+            return false;
+        }
+        crc.reset();
+        crc.update(map.slice(offset + SLOT_HEADER, length));
+        return (int) crc.getValue() == map.getInt(offset + 12);
+    }
+
+    private int slotOffset(long slotGeneration) {
+        return FILE_HEADER + (int) (slotGeneration & 1) * capacity;
+    }
+
+    private void mapExisting() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).order(Checkpoint.ORDER);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a checkpoint file");
+            }
+            int version = header.getShort() & 0xFFFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + path);
+            }
+            header.getShort();
+            int slotCapacity = header.getInt();
+            if (slotCapacity < SLOT_HEADER || FILE_HEADER + 2L * slotCapacity > channel.size()) {
+                throw new IOException(path + " is truncated");
+            }
+            capacity = slotCapacity;
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER + 2L * capacity);
+            map.order(Checkpoint.ORDER);
+        }
+        // Count on from the newest intact slot, not the newest stamped one: if that one is torn, the next save
+        // overwrites it rather than the only good copy.
+        int newest = newestIntactSlot();
+        generation = newest < 0 ? 0 : map.getLong(newest);
+    }
+
+    /**
+     * Enlarges both slots to hold {@code needed} bytes. Slot 1 moves, so its contents are copied along; slot 0
+     * stays put.
+     */
+    private void grow(int needed) throws IOException {
+        int oldCapacity = capacity;
+        byte[] slotOne = new byte[oldCapacity];
+        map.get(FILE_HEADER + oldCapacity, slotOne);
+        remap(slotCapacityFor(Math.max(needed, oldCapacity * 2)));
+        map.put(FILE_HEADER + capacity, slotOne);
+    }
+
+    /** The slot size that holds {@code needed} bytes and rounds the file up to whole pages. */
+    private static int slotCapacityFor(int needed) {
+        int fileSize = (FILE_HEADER + 2 * needed + PAGE - 1) / PAGE * PAGE;
+        return (fileSize - FILE_HEADER) / 2;
+    }
+
+    /** Maps the file with slots of {@code slotCapacity} bytes and writes the file header. */
+    private void remap(int slotCapacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER + 2L * slotCapacity);
+            map.order(Checkpoint.ORDER);
+        }
+        capacity = slotCapacity;
+        map.putInt(0, MAGIC);
+        map.putShort(4, (short) VERSION);
+        map.putShort(6, (short) 0);
+        map.putInt(8, capacity);
+        map.putInt(12, 0);
+    }
+}
@@ -0,0 +1,164 @@
+package com.game.oop;
+
+/**
+ * Client-side prediction of the local player. Every client tick {@link #predict} moves a local copy of the player
+ * with {@link PlayerMotion}, as the server will once the input arrives, and records the input and the resulting
+ * position in ring buffers indexed by input sequence. When a snapshot reports the newest input the server has
+ * applied and where that left the player, {@link #reconcile} compares it with the position recorded for that
+ * input; on a mismatch it restarts from the server's position and replays every input the server has not applied
+ * yet. Small corrections are not shown as a jump: the difference becomes an offset on the drawn position that
+ * decays over {@link #SMOOTHING_SECONDS}. Stage changes and respawns move the player too far for that and snap.
+ * Single-threaded.
+ */
+final class ClientPrediction {
+    /** Inputs kept for replay: about four seconds at 60 ticks per second. */
+    static final int HISTORY = 256;
+    private static final int MASK = HISTORY - 1;
+    /** Time constant of the drawn correction offset. */
+    private static final double SMOOTHING_SECONDS = 0.1;
+    /** Corrections longer than this are applied at once. */
+    private static final double SNAP_DISTANCE = 48;
+    /** Snapshots carry positions rounded to this, so smaller differences are not mispredictions. */
+    private static final double TOLERANCE = 1 / Snapshot.POSITION_SCALE;
+
+    private final int[] inputs = new int[HISTORY];
+    private final double[] historyX = new double[HISTORY];
+    private final double[] historyY = new double[HISTORY];
+    private final double tickSeconds;
+    private final double decay;
+    private Player player;
+    private int sequence;
+    private int acknowledged;
+    private int stunTicks;
+    private boolean dead;
+    private double width;
+    private double height;
+    private TileMap map;
+    private double offsetX;
+    private double offsetY;
+    private long corrections;
+    private double correctedDistance;
+
+    ClientPrediction(double tickSeconds) {
+        this.tickSeconds = tickSeconds;
+        this.decay = Math.exp(-tickSeconds / SMOOTHING_SECONDS);
+    }
+
+    boolean isStarted() {
+        return player != null;
+    }
+
+    /** Starts predicting a player of the given size and speed from the first snapshot that contains it. */
+    void start(double x, double y, double size, double speed) {
+        player = new Player(0, x, y, size, speed);
+        sequence = 0;
+        acknowledged = 0;
+        historyX[0] = x;
+        historyY[0] = y;
+    }
+
+    /** World bounds and walls the prediction moves in; {@code map} is {@code null} on open stages. */
+    void setWorld(double width, double height, TileMap map) {
+        this.width = width;
+        this.height = height;
+        this.map = map;
+    }
+
+    /** Applies one tick of {@code mask} to the local player and returns the sequence number to send it with. */
+    int predict(int mask) {
+        sequence++;
+        inputs[sequence & MASK] = mask;
+        step(sequence);
+        offsetX *= decay;
+        offsetY *= decay;
+        return sequence;
+    }
+
+    /**
+     * Accepts the server's word on the local player: after applying input {@code sequence} it stood at
+     * {@code (x, y)}, stunned for {@code stunTicks} more ticks. Older reports are ignored.
+     */
+    void reconcile(int sequence, double x, double y, int stunTicks, boolean dead) {
+        if (sequence < acknowledged || sequence > this.sequence) {
+            return;
+        }
+        acknowledged = sequence;
+        this.dead = dead;
+        int slot = sequence & MASK;
+        boolean matches = this.sequence - sequence < HISTORY && Math.abs(historyX[slot] - x) <= TOLERANCE
+                && Math.abs(historyY[slot] - y) <= TOLERANCE;
+        // A fresh stun also changes the inputs still in flight, which the server will not let move the player.
+        if (matches && stunTicks == 0) {
+            this.stunTicks = 0;
+            return;
+        }
+
+        double predictedX = player.x;
+        double predictedY = player.y;
+        this.stunTicks = stunTicks;
+        player.x = x;
+        player.y = y;
+        player.snapPrevious();
+        historyX[slot] = x;
+        historyY[slot] = y;
+        for (int s = Math.max(sequence + 1, this.sequence - HISTORY + 1); s <= this.sequence; s++) {
+            step(s);
+        }
+
+        double missedBy = Math.hypot(predictedX - player.x, predictedY - player.y);
+        if (missedBy <= TOLERANCE) {
+            return;
+        }
+        corrections++;
+        correctedDistance += missedBy;
+        offsetX += predictedX - player.x;
+        offsetY += predictedY - player.y;
+        if (offsetX * offsetX + offsetY * offsetY > SNAP_DISTANCE * SNAP_DISTANCE) {
+            offsetX = 0;
+            offsetY = 0;
+            player.snapPrevious();
+        }
+    }
+
+    private void step(int sequence) {
+        boolean canMove = !dead && stunTicks <= 0;
+        if (stunTicks > 0) {
+            stunTicks--;
+        }
+        player.snapPrevious();
+        PlayerMotion.step(player, InputMask.toSet(inputs[sequence & MASK]), canMove, tickSeconds, width, height, map);
+        historyX[sequence & MASK] = player.x;
+        historyY[sequence & MASK] = player.y;
+    }
+
+    Player player() {
+        return player;
+    }
+
+    /** Where to draw the player for blend factor {@code alpha}, including what is left of the last correction. */
+    double drawX(double alpha) {
+        return GameMath.lerp(player.prevX, player.x, alpha) + offsetX;
+    }
+
+    double drawY(double alpha) {
+        return GameMath.lerp(player.prevY, player.y, alpha) + offsetY;
+    }
+
+    boolean isStunned() {
+        return stunTicks > 0;
+    }
+
+    /** Inputs sent that the server has not yet reported applying. */
+    int unacknowledged() {
+        return sequence - acknowledged;
+    }
+
+    long corrections() {
+        return corrections;
+    }
+
+    /** Sum over all corrections of how far the predicted position was off. */
+    double correctedDistance() {
+        return correctedDistance;
+    }
+}
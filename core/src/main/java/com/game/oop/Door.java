@@ -0,0 +1,39 @@
+package com.game.oop;
+
+final class Door {
+    private final double x;
+    private final double y;
+    private final double size;
+    private final DoorType type;
+
+    Door(double x, double y, double size, DoorType type) {
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.type = type;
+    }
+
+    double getX() {
+        return x;
+    }
+
+    double getY() {
+        return y;
+    }
+
+    double getSize() {
+        return size;
+    }
+
+    DoorType getType() {
+        return type;
+    }
+
+    double centerX() {
+        return x + size / 2.0;
+    }
+
+    double centerY() {
+        return y + size / 2.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.game.oop;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Places door centres with Bridson's Poisson-disk sampling. The area is filled with points that keep a distance
+ * chosen so that roughly four times the requested count fit, never less than the required spacing, and the
+ * doors are drawn from those at random. A background grid whose cells hold at most one point makes every
+ * candidate check a fixed 5x5 cell lookup, and each point costs at most {@link #CANDIDATES} candidates, so a
+ * layout takes time linear in the number of doors with no retry limit to run into. Arrays are reused between
+ * layouts.
+ */
+final class DoorPlacer {
+    /** Candidates per point, spread evenly around it at exactly the fill distance. */
+    private static final int CANDIDATES = 12;
+    /** Area per point of a finished fill, in squared fill distances. */
+    private static final double AREA_PER_POINT = 1.2;
+    /** Small stages still draw from this many points, so their doors are not evenly spread. */
+    private static final int MIN_POINTS = 64;
+    private static final int EMPTY = -1;
+    private static final double[] DIRECTION_X = new double[CANDIDATES];
+    private static final double[] DIRECTION_Y = new double[CANDIDATES];
+
+    static {
+        for (int i = 0; i < CANDIDATES; i++) {
+            DIRECTION_X[i] = Math.cos(Math.PI * 2 * i / CANDIDATES);
+            DIRECTION_Y[i] = Math.sin(Math.PI * 2 * i / CANDIDATES);
+        }
+    }
+
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private int[] active = new int[64];
+    private int[] cells = new int[0];
+    private int columns;
+    private int rows;
+    private double cellSize;
+    private double distance;
+
+    /**
+     * Picks up to {@code wanted} centres inside {@code [minX, maxX] x [minY, maxY]}, no two closer than
+     * {@code spacing}, and returns how many were placed; read them with {@link #x(int)} and {@link #y(int)}.
+     * Fewer than {@code wanted} come back only if the area cannot hold more.
+     */
+    int place(double minX, double minY, double maxX, double maxY, double spacing, int wanted,
+              RandomGenerator random) {
+        if (wanted <= 0) {
+            return 0;
+        }
+        maxX = Math.max(minX, maxX);
+        maxY = Math.max(minY, maxY);
+        double area = (maxX - minX) * (maxY - minY);
+        int target = Math.max(MIN_POINTS, wanted * 4);
+        double fillDistance = Math.max(spacing, Math.sqrt(area / (AREA_PER_POINT * target)));
+        int count = fill(minX, minY, maxX, maxY, fillDistance, random);
+        while (count < wanted && fillDistance > spacing) {
+            fillDistance = Math.max(spacing, fillDistance / Math.sqrt(2));
+            count = fill(minX, minY, maxX, maxY, fillDistance, random);
+        }
+
+        int placed = Math.min(wanted, count);
+        for (int i = 0; i < placed; i++) {
+            int j = i + random.nextInt(count - i);
+            swap(xs, i, j);
+            swap(ys, i, j);
+        }
+        return placed;
+    }
+
+    double x(int i) {
+        return xs[i];
+    }
+
+    double y(int i) {
+        return ys[i];
+    }
+
+    private int fill(double minX, double minY, double maxX, double maxY, double fillDistance,
+                     RandomGenerator random) {
+        distance = fillDistance;
+        cellSize = fillDistance / Math.sqrt(2);
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+        if (cells.length < columns * rows) {
+            cells = new int[columns * rows];
+        }
+        Arrays.fill(cells, 0, columns * rows, EMPTY);
+
+        int count = 0;
+        add(count++, minX + random.nextDouble() * (maxX - minX), minY + random.nextDouble() * (maxY - minY),
+                minX, minY);
+        active[0] = 0;
+        int activeCount = 1;
+        // A hair over the minimum so rounding never puts a candidate inside its parent's disk.
+        double step = fillDistance * 1.000001;
+        while (activeCount > 0) {
+            int slot = random.nextInt(activeCount);
+            int from = active[slot];
+            double angle = random.nextDouble() * Math.PI * 2;
+            double cos = Math.cos(angle) * step;
+            double sin = Math.sin(angle) * step;
+            boolean found = false;
+            for (int i = 0; i < CANDIDATES && !found; i++) {
+                double x = xs[from] + DIRECTION_X[i] * cos - DIRECTION_Y[i] * sin;
+                double y = ys[from] + DIRECTION_X[i] * sin + DIRECTION_Y[i] * cos;
+                if (x < minX || x > maxX || y < minY || y > maxY || !isClear(x, y, minX, minY)) {
+                    continue;
+                }
+                ensureCapacity(count + 1);
+                add(count, x, y, minX, minY);
+                active[activeCount++] = count++;
+                found = true;
+            }
+            if (!found) {
+                active[slot] = active[--activeCount];
+            }
+        }
+        return count;
+    }
+
+    private void add(int id, double x, double y, double minX, double minY) {
+        xs[id] = x;
+        ys[id] = y;
+        cells[cellIndex(x - minX, y - minY)] = id;
+    }
+
+    private boolean isClear(double x, double y, double minX, double minY) {
+        int column = (int) ((x - minX) / cellSize);
+        int row = (int) ((y - minY) / cellSize);
+        double minDistanceSquared = distance * distance;
+        for (int r = Math.max(0, row - 2); r <= Math.min(rows - 1, row + 2); r++) {
+            for (int c = Math.max(0, column - 2); c <= Math.min(columns - 1, column + 2); c++) {
+                int id = cells[r * columns + c];
+                if (id != EMPTY && GameMath.distanceSquared(x, y, xs[id], ys[id]) < minDistanceSquared) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int cellIndex(double offsetX, double offsetY) {
+        return (int) (offsetY / cellSize) * columns + (int) (offsetX / cellSize);
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > xs.length) {
+            int capacity = Math.max(size, xs.length * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            active = Arrays.copyOf(active, capacity);
+        }
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
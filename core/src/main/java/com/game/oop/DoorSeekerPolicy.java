@@ -0,0 +1,81 @@
+package com.game.oop;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Walks straight to the nearest door it has not tried yet, the way a player sweeps a room without knowing which
+ * door is the exit. Ignores monsters entirely, so its death rate measures how hard they are to outrun.
+ */
+final class DoorSeekerPolicy implements InputPolicy {
+    private static final double DEAD_ZONE = 2;
+    private static final double ARRIVED = 6;
+
+    private boolean[] tried = new boolean[0];
+    private int target = -1;
+
+    @Override
+    public Set<GameWorld.Input> next(GameWorld world, SplittableRandom random) {
+        List<Door> doors = world.getDoors();
+        if (doors.isEmpty()) {
+            return InputMask.toSet(0);
+        }
+        if (tried.length != doors.size()) {
+            tried = new boolean[doors.size()];
+            target = -1;
+        }
+
+        Player player = world.getPlayer();
+        if (target >= 0) {
+            Door door = doors.get(target);
+            if (GameMath.withinRange(player.centerX(), player.centerY(), door.centerX(), door.centerY(), ARRIVED)) {
+                tried[target] = true;
+                target = -1;
+            }
+        }
+        if (target < 0) {
+            target = nearestUntried(doors, player);
+        }
+
+        Door door = doors.get(target);
+        double dx = door.centerX() - player.centerX();
+        double dy = door.centerY() - player.centerY();
+        int mask = 0;
+        if (dx > DEAD_ZONE) {
+            mask |= 1 << GameWorld.Input.RIGHT.ordinal();
+        } else if (dx < -DEAD_ZONE) {
+            mask |= 1 << GameWorld.Input.LEFT.ordinal();
+        }
+        if (dy > DEAD_ZONE) {
+            mask |= 1 << GameWorld.Input.DOWN.ordinal();
+        } else if (dy < -DEAD_ZONE) {
+            mask |= 1 << GameWorld.Input.UP.ordinal();
+        }
+        return InputMask.toSet(mask);
+    }
+
+    private int nearestUntried(List<Door> doors, Player player) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int pass = 0; pass < 2 && best < 0; pass++) {
+            for (int i = 0; i < doors.size(); i++) {
+                if (tried[i]) {
+                    continue;
+                }
+                Door door = doors.get(i);
+                double distance = GameMath.distanceSquared(player.centerX(), player.centerY(), door.centerX(),
+                        door.centerY());
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            if (best < 0) {
+                Arrays.fill(tried, false);
+            }
+        }
+        return best;
+    }
+}
@@ -1,3 +1,5 @@
+package com.game.oop;
+
 public enum DoorType {
     PASS,
     BACK,
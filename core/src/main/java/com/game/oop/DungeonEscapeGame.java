@@ -0,0 +1,201 @@
+package com.game.oop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * libGDX front end for the dungeon game, launched by the lwjgl3 desktop module. Shows a progress bar until
+ * {@link GameAssets} has streamed everything in, so no frame ever waits on disk. With {@code -Ddungeon.server} set it
+ * plays on a {@link GameServer} through a {@link RemoteSession} instead of running a world of its own. Movement keys
+ * go through an {@link InputQueue} stamped with libGDX's event times, so ticks see them as they happened within the
+ * frame. F5 quick-saves a local game and F9 loads it back.
+ */
+public class DungeonEscapeGame extends ApplicationAdapter {
+    /** Render-thread time per frame spent uploading loaded assets to the GPU. */
+    private static final int LOAD_BUDGET_MILLIS = 8;
+    /**
+     * With {@code -Ddungeon.exitAfterFrames=N} the game quits by itself after N game frames; CDS training runs and
+     * the startup benchmark use this. Zero, the default, runs until the window is closed.
+     */
+    private static final int EXIT_AFTER_FRAMES = Integer.getInteger("dungeon.exitAfterFrames", 0);
+
+    private GameAssets assets;
+    private LoadingScreen loadingScreen;
+    private GameWorld world;
+    private RemoteSession remote;
+    private GdxWorldRenderer renderer;
+    private ReplayRecorder recorder;
+    private StageTableWatcher stageWatcher;
+    private final RenderFrame frame = new RenderFrame();
+    private final InputQueue inputs = new InputQueue();
+    private final CheckpointFile.QuickSave quickSave = new CheckpointFile.QuickSave();
+    private OrthographicCamera camera;
+    private final FrameStats frameStats = new FrameStats();
+    private boolean showFrameStats;
+    private int framesRendered;
+
+    @Override
+    public void create() {
+        camera = new OrthographicCamera();
+        camera.setToOrtho(true, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        assets = new GameAssets();
+        loadingScreen = new LoadingScreen();
+        Gdx.input.setInputProcessor(new InputAdapter() {
+            @Override
+            public boolean keyDown(int keycode) {
+                GameWorld.Input input = mapKey(keycode);
+                if (input != null) {
+                    inputs.press(input, Gdx.input.getCurrentEventTime());
+                }
+                return input != null;
+            }
+
+            @Override
+            public boolean keyUp(int keycode) {
+                GameWorld.Input input = mapKey(keycode);
+                if (input != null) {
+                    inputs.release(input, Gdx.input.getCurrentEventTime());
+                }
+                return input != null;
+            }
+        });
+        try {
+            remote = RemoteSession.connectIfRequested(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (remote != null) {
+            return;
+        }
+        world = new GameWorld(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), GameWorld.DEFAULT_TICK_RATE,
+                GameWorld.configuredSeed());
+        recorder = ReplayRecorder.attachIfRequested(world);
+        Path stageFile = StageTableWatcher.locate();
+        if (stageFile != null) {
+            stageWatcher = StageTableWatcher.start(stageFile, world::offerStageTable);
+        }
+    }
+
+    @Override
+    public void render() {
+        camera.update();
+        if (renderer == null && !finishLoading()) {
+            return;
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            showFrameStats = !showFrameStats;
+            renderer.setOverlay(showFrameStats ? overlayText() : null);
+        }
+        if (frameStats.frame(System.nanoTime()) && showFrameStats) {
+            renderer.setOverlay(overlayText());
+        }
+        if (remote != null) {
+            remote.update(Gdx.graphics.getDeltaTime(), inputs, System.nanoTime());
+        } else {
+            if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+                quickSave.save(world);
+            }
+            if (Gdx.input.isKeyJustPressed(Input.Keys.F9) && quickSave.load(world)) {
+                // The checkpoint may come from another window size.
+                world.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            }
+            world.update(Gdx.graphics.getDeltaTime(), inputs, System.nanoTime());
+        }
+
+        ScreenUtils.clear(0f, 0f, 0f, 1f);
+        if (remote != null) {
+            remote.writeFrame(frame);
+        } else {
+            world.writeFrame(frame);
+        }
+        TickProfiler profiler = profiler();
+        long start = profiler.start();
+        renderer.render(frame);
+        profiler.lap(TickProfiler.Phase.DRAW, start);
+
+        if (EXIT_AFTER_FRAMES > 0 && ++framesRendered == EXIT_AFTER_FRAMES) {
+            Gdx.app.exit();
+        }
+    }
+
+    /** Advances asset loading; draws the progress screen and returns {@code false} until everything is in. */
+    private boolean finishLoading() {
+        if (!assets.update(LOAD_BUDGET_MILLIS)) {
+            ScreenUtils.clear(0f, 0f, 0f, 1f);
+            loadingScreen.render(camera, assets.progress());
+            return false;
+        }
+        renderer = new GdxWorldRenderer(camera, assets.entities());
+        loadingScreen.dispose();
+        loadingScreen = null;
+        return true;
+    }
+
+    private String overlayText() {
+        return frameStats.summary() + "\n" + profiler().overlay();
+    }
+
+    private TickProfiler profiler() {
+        return remote != null ? remote.getProfiler() : world.getProfiler();
+    }
+
+    private static GameWorld.Input mapKey(int keycode) {
+        return switch (keycode) {
+            case Input.Keys.W, Input.Keys.UP -> GameWorld.Input.UP;
+            case Input.Keys.S, Input.Keys.DOWN -> GameWorld.Input.DOWN;
+            case Input.Keys.A, Input.Keys.LEFT -> GameWorld.Input.LEFT;
+            case Input.Keys.D, Input.Keys.RIGHT -> GameWorld.Input.RIGHT;
+            default -> null;
+        };
+    }
+
+    @Override
+    public void pause() {
+        // Key releases while the window is in the background never arrive.
+        inputs.releaseAll(System.nanoTime());
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if (world != null) {
+            world.resize(width, height);
+        }
+        if (remote != null) {
+            remote.resize(width, height);
+        }
+        if (camera != null) {
+            camera.setToOrtho(true, width, height);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (remote != null) {
+            remote.close();
+        }
+        if (stageWatcher != null) {
+            stageWatcher.stop();
+        }
+        if (recorder != null) {
+            recorder.saveRequested();
+        }
+        if (renderer != null) {
+            renderer.dispose();
+        }
+        if (loadingScreen != null) {
+            loadingScreen.dispose();
+        }
+        if (assets != null) {
+            assets.dispose();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.game.oop;
+
+/**
+ * Draws what a client does not predict (monsters, their rings, projectiles and other players) a little in the
+ * past, blending the two snapshots around a playback clock so entities glide instead of jumping 20 times a second.
+ * The clock runs at the server's tick rate a delay behind the newest snapshot: one snapshot interval plus twice
+ * the measured arrival jitter, so late snapshots rarely leave it without a later one to blend towards. Each
+ * arrival nudges the clock towards its target instead of resetting it, and only a large gap (a stall, or the first
+ * snapshot) snaps it. An entity that moved further than {@link #SNAP_DISTANCE} between the two snapshots (a warp, a
+ * new stage, a projectile slot reused for another shot) is drawn where it is now. Snapshots are held by reference
+ * and must not change while they are buffered. Single-threaded.
+ */
+final class EntityInterpolator {
+    /** Newest snapshots kept; the playback clock never falls further behind than this. */
+    static final int BUFFER = 8;
+    private static final double SNAP_DISTANCE = 48 * Snapshot.POSITION_SCALE;
+    private static final double JITTER_GAIN = 0.1;
+    private static final double CLOCK_GAIN = 0.1;
+    private static final MonsterKind[] KINDS = MonsterKind.values();
+
+    private final Snapshot[] buffer = new Snapshot[BUFFER];
+    private final double tickRate;
+    private final int ticksPerSnapshot;
+    private int newest = -1;
+    private int count;
+    private double playbackTick = -1;
+    private double jitterSeconds;
+    private long lastArrivalNanos;
+    private long underruns;
+    private Snapshot from;
+    private Snapshot to;
+    private double fraction;
+
+    EntityInterpolator(double tickRate, int ticksPerSnapshot) {
+        this.tickRate = tickRate;
+        this.ticksPerSnapshot = ticksPerSnapshot;
+    }
+
+    void add(Snapshot snapshot, long arrivalNanos) {
+        if (count > 0) {
+            double interval = (arrivalNanos - lastArrivalNanos) / 1e9;
+            double deviation = Math.abs(interval - ticksPerSnapshot / tickRate);
+            jitterSeconds += (deviation - jitterSeconds) * JITTER_GAIN;
+        }
+        lastArrivalNanos = arrivalNanos;
+        newest = (newest + 1) % BUFFER;
+        buffer[newest] = snapshot;
+        count = Math.min(BUFFER, count + 1);
+
+        double target = snapshot.header(Snapshot.TICK) - delayTicks();
+        double error = target - playbackTick;
+        if (playbackTick < 0 || Math.abs(error) > ticksPerSnapshot * (BUFFER / 2.0)) {
+            playbackTick = target;
+        } else {
+            playbackTick += error * CLOCK_GAIN;
+        }
+    }
+
+    /** How far behind the newest snapshot entities are drawn, in ticks. */
+    double delayTicks() {
+        return ticksPerSnapshot + 2 * jitterSeconds * tickRate;
+    }
+
+    /** Frames that found no newer snapshot to blend towards and held the newest one still. */
+    long underruns() {
+        return underruns;
+    }
+
+    /** Moves the playback clock on by a frame and picks the snapshots to blend. */
+    void advance(double frameSeconds) {
+        if (count == 0) {
+            return;
+        }
+        playbackTick += frameSeconds * tickRate;
+        Snapshot latest = buffer[newest];
+        if (playbackTick >= latest.header(Snapshot.TICK)) {
+            playbackTick = latest.header(Snapshot.TICK);
+            if (count > 1) {
+                underruns++;
+            }
+            from = latest;
+            to = latest;
+            fraction = 0;
+            return;
+        }
+        from = null;
+        to = latest;
+        for (int i = 1; i < count; i++) {
+            Snapshot older = buffer[(newest - i + BUFFER) % BUFFER];
+            if (older.header(Snapshot.TICK) <= playbackTick) {
+                from = older;
+                break;
+            }
+            to = older;
+        }
+        if (from == null) {
+            // The clock is older than the whole buffer; hold the oldest snapshot.
+            from = to;
+            fraction = 0;
+            return;
+        }
+        int span = to.header(Snapshot.TICK) - from.header(Snapshot.TICK);
+        fraction = span > 0 ? (playbackTick - from.header(Snapshot.TICK)) / span : 1;
+    }
+
+    /** Adds every monster and its ring to {@code frame}. */
+    void writeMonsters(RenderFrame frame) {
+        if (to == null) {
+            return;
+        }
+        boolean sameLayout = from.header(Snapshot.LAYOUT_VERSION) == to.header(Snapshot.LAYOUT_VERSION);
+        int stride = Snapshot.STRIDES[Snapshot.MONSTERS];
+        int[] a = from.values[Snapshot.MONSTERS];
+        int[] b = to.values[Snapshot.MONSTERS];
+        int shared = sameLayout ? Math.min(from.counts[Snapshot.MONSTERS], to.counts[Snapshot.MONSTERS]) : 0;
+        for (int m = 0, i = 0; m < to.counts[Snapshot.MONSTERS]; m++, i += stride) {
+            boolean blend = m < shared;
+            double x = position(a, b, i + 1, i + 2, blend);
+            double y = position(a, b, i + 2, i + 1, blend);
+            frame.addMonster(x, y, x, y, MonsterKind.RADIUS, KINDS[b[i] & Snapshot.KIND_MASK]);
+            if (b[i + 3] == 0) {
+                continue;
+            }
+            boolean blendRing = blend && a[i + 3] != 0
+                    && (a[i] & Snapshot.FLAG_TELEGRAPHING) == (b[i] & Snapshot.FLAG_TELEGRAPHING);
+            double ringX = position(a, b, i + 4, i + 5, blendRing);
+            double ringY = position(a, b, i + 5, i + 4, blendRing);
+            double radius = Snapshot.toPixels(b[i + 3]);
+            if (blendRing) {
+                radius = GameMath.lerp(Snapshot.toPixels(a[i + 3]), radius, fraction);
+            }
+            int style = (b[i] & Snapshot.FLAG_TELEGRAPHING) != 0 ? RenderFrame.RING_TELEGRAPH : RenderFrame.RING_PULSE;
+            frame.addRing(ringX, ringY, ringX, ringY, radius, style);
+        }
+    }
+
+    void writeProjectiles(RenderFrame frame) {
+        if (to == null) {
+            return;
+        }
+        int stride = Snapshot.STRIDES[Snapshot.PROJECTILES];
+        int[] a = from.values[Snapshot.PROJECTILES];
+        int[] b = to.values[Snapshot.PROJECTILES];
+        int shared = Math.min(from.counts[Snapshot.PROJECTILES], to.counts[Snapshot.PROJECTILES]);
+        for (int p = 0, i = 0; p < to.counts[Snapshot.PROJECTILES]; p++, i += stride) {
+            double x = position(a, b, i, i + 1, p < shared);
+            double y = position(a, b, i + 1, i, p < shared);
+            frame.addProjectile(x, y, x, y, ProjectilePool.RADIUS);
+        }
+    }
+
+    /** Adds every player except {@code localId}, matched across the two snapshots by id. */
+    void writeOthers(RenderFrame frame, int localId) {
+        if (to == null) {
+            return;
+        }
+        int stride = Snapshot.STRIDES[Snapshot.PLAYERS];
+        int[] a = from.values[Snapshot.PLAYERS];
+        int[] b = to.values[Snapshot.PLAYERS];
+        int fromCount = from.counts[Snapshot.PLAYERS];
+        for (int p = 0, i = 0; p < to.counts[Snapshot.PLAYERS]; p++, i += stride) {
+            if (b[i] == localId) {
+                continue;
+            }
+            int j = p < fromCount && a[p * stride] == b[i] ? p * stride : find(a, fromCount, stride, b[i]);
+            double x;
+            double y;
+            if (j >= 0) {
+                x = blend(a[j + 1], b[i + 1], a[j + 2], b[i + 2]);
+                y = blend(a[j + 2], b[i + 2], a[j + 1], b[i + 1]);
+            } else {
+                x = Snapshot.toPixels(b[i + 1]);
+                y = Snapshot.toPixels(b[i + 2]);
+            }
+            frame.addOther(x, y, x, y, b[i + 3] > 0);
+        }
+    }
+
+    private static int find(int[] values, int count, int stride, int id) {
+        for (int p = 0, i = 0; p < count; p++, i += stride) {
+            if (values[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The coordinate at {@code index}, blended when {@code blend} is set; {@code other} is the entity's other
+     * coordinate, needed to tell a jump from a move.
+     */
+    private double position(int[] a, int[] b, int index, int other, boolean blend) {
+        return blend ? blend(a[index], b[index], a[other], b[other]) : Snapshot.toPixels(b[index]);
+    }
+
+    private double blend(int fromValue, int toValue, int fromOther, int toOther) {
+        double dx = toValue - fromValue;
+        double dy = toOther - fromOther;
+        if (dx * dx + dy * dy > SNAP_DISTANCE * SNAP_DISTANCE) {
+            return Snapshot.toPixels(toValue);
+        }
+        return Snapshot.toPixels(fromValue) + dx * fraction / Snapshot.POSITION_SCALE;
+    }
+}
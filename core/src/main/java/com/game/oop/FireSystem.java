@@ -0,0 +1,32 @@
+package com.game.oop;
+
+final class FireSystem {
+    private static final double PROJECTILE_SPEED = 192;
+    private static final double VOLLEY_SPREAD = Math.toRadians(20);
+
+    private FireSystem() {
+    }
+
+    /** Runs the firing cycle; when the wind-up ends the monster fires a three-shot spread at the nearest player. */
+    static void run(GameWorld world, MonsterStore monsters, int from, int to, double now, MonsterEffects effects) {
+        int[] members = monsters.members(MonsterStore.FIRE);
+        int end = monsters.firstMember(MonsterStore.FIRE, to);
+        for (int m = monsters.firstMember(MonsterStore.FIRE, from); m < end; m++) {
+            int i = members[m];
+            if (monsters.dormant[i]) {
+                continue;
+            }
+            if (monsters.stepSkillCycle(i, now, monsters.skillCooldown[i])) {
+                monsters.lastSkillTime[i] = now;
+                double sx = monsters.x[i];
+                double sy = monsters.y[i];
+                Player player = world.nearestPlayer(sx, sy);
+                double centerAngle = Math.atan2(player.centerY() - sy, player.centerX() - sx);
+                for (int shot = -1; shot <= 1; shot++) {
+                    double angle = centerAngle + shot * VOLLEY_SPREAD;
+                    effects.spawnProjectile(sx, sy, Math.cos(angle), Math.sin(angle), PROJECTILE_SPEED);
+                }
+            }
+        }
+    }
+}
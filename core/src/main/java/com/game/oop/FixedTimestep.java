@@ -0,0 +1,51 @@
+package com.game.oop;
+
+final class FixedTimestep {
+    private static final double MAX_FRAME_SECONDS = 0.25;
+
+    private final double tickSeconds;
+    private double accumulator;
+
+    FixedTimestep(double ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        this.tickSeconds = 1.0 / ticksPerSecond;
+    }
+
+    double getTickSeconds() {
+        return tickSeconds;
+    }
+
+    /**
+     * Adds a frame's worth of wall-clock time and returns how many fixed ticks are now due.
+     * Long hitches are clamped so a stalled frame cannot queue up an unbounded catch-up burst.
+     */
+    int advance(double frameSeconds) {
+        accumulator += GameMath.clamp(frameSeconds, 0, MAX_FRAME_SECONDS);
+        int ticks = (int) (accumulator / tickSeconds);
+        accumulator -= ticks * tickSeconds;
+        return ticks;
+    }
+
+    /** Fraction of a tick left over after the last {@link #advance}, used to blend previous and current state. */
+    double alpha() {
+        return accumulator / tickSeconds;
+    }
+
+    /**
+     * When the {@code index}-th of the {@code ticks} ticks returned by the last {@link #advance} fell due, given
+     * that the advance happened at {@code nowNanos}; the last one fell due the leftover fraction of a tick ago.
+     */
+    long dueAtNanos(int index, int ticks, long nowNanos) {
+        return nowNanos - Math.round((accumulator + (ticks - 1 - index) * tickSeconds) * 1e9);
+    }
+
+    double secondsUntilNextTick() {
+        return tickSeconds - accumulator;
+    }
+
+    void reset() {
+        accumulator = 0;
+    }
+}
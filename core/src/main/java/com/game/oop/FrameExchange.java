@@ -0,0 +1,42 @@
+package com.game.oop;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of {@link RenderFrame}s between one simulation thread and one render thread. The
+ * writer always fills a frame nobody else can see, publishing swaps it with the shared middle slot, and the
+ * reader swaps the middle slot for its own only when something new has been published. Neither side ever
+ * waits for the other, and a frame handed to the reader is never written again until the reader gives it back.
+ */
+final class FrameExchange {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final RenderFrame[] frames = {new RenderFrame(), new RenderFrame(), new RenderFrame()};
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+    private boolean readerHasFrame;
+
+    /** Frame owned by the writer; fill it completely, then call {@link #publish()}. Writer thread only. */
+    RenderFrame beginWrite() {
+        return frames[writeIndex];
+    }
+
+    /** Makes the frame from {@link #beginWrite()} the latest one. Writer thread only. */
+    void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published frame, or the reader's previous frame if nothing new arrived since
+     * the last call. Returns {@code null} until the first frame is published. Reader thread only.
+     */
+    RenderFrame acquireLatest() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+            readerHasFrame = true;
+        }
+        return readerHasFrame ? frames[readIndex] : null;
+    }
+}
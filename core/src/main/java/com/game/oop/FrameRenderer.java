@@ -0,0 +1,9 @@
+package com.game.oop;
+
+/**
+ * A drawing backend. Implementations only read the {@link RenderFrame} they are given and never touch the
+ * world, so the simulation can run without any UI toolkit loaded.
+ */
+interface FrameRenderer {
+    void render(RenderFrame frame);
+}
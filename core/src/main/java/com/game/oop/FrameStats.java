@@ -0,0 +1,60 @@
+package com.game.oop;
+
+/**
+ * Rolling frame-pacing statistics for the on-screen overlay. Frame intervals go into a fixed ring buffer, and
+ * the summary text is rebuilt at most every {@link #REPORT_INTERVAL_NANOS}, so recording a frame never allocates.
+ */
+final class FrameStats {
+    private static final int SAMPLES = 120;
+    private static final long REPORT_INTERVAL_NANOS = 500_000_000L;
+
+    private final long[] intervals = new long[SAMPLES];
+    private int count;
+    private int next;
+    private long lastFrameNanos;
+    private long lastReportNanos;
+    private String summary = "";
+
+    /** Records a frame presented at {@code nowNanos}; returns {@code true} when {@link #summary()} changed. */
+    boolean frame(long nowNanos) {
+        if (lastFrameNanos != 0) {
+            intervals[next] = nowNanos - lastFrameNanos;
+            next = (next + 1) % SAMPLES;
+            count = Math.min(count + 1, SAMPLES);
+        }
+        lastFrameNanos = nowNanos;
+        if (count == 0 || nowNanos - lastReportNanos < REPORT_INTERVAL_NANOS) {
+            return false;
+        }
+        lastReportNanos = nowNanos;
+        summary = summarize();
+        return true;
+    }
+
+    /** Text such as {@code "60 fps  16.7 ms avg  18.2 ms max"}, or empty before two frames were recorded. */
+    String summary() {
+        return summary;
+    }
+
+    double averageMillis() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += intervals[i];
+        }
+        return count == 0 ? 0 : total / (count * 1_000_000.0);
+    }
+
+    double maxMillis() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, intervals[i]);
+        }
+        return max / 1_000_000.0;
+    }
+
+    private String summarize() {
+        double average = averageMillis();
+        long fps = average > 0 ? Math.round(1000.0 / average) : 0;
+        return String.format("%d fps  %.1f ms avg  %.1f ms max", fps, average, maxMillis());
+    }
+}
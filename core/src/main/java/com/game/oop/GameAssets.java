@@ -0,0 +1,38 @@
+package com.game.oop;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Everything the libGDX front end loads from disk. Files are read and decoded on the {@link AssetManager}'s
+ * worker thread; the render thread only uploads finished textures, within a time budget per frame.
+ */
+final class GameAssets implements Disposable {
+    /** Packed from {@code sprites/entities} by the {@code packTextures} Gradle task. */
+    static final String ENTITY_ATLAS = "atlas/entities.atlas";
+
+    private final AssetManager manager = new AssetManager();
+
+    GameAssets() {
+        manager.load(ENTITY_ATLAS, TextureAtlas.class);
+    }
+
+    /** Advances loading for at most {@code budgetMillis} of the calling frame; {@code true} once all is ready. */
+    boolean update(int budgetMillis) {
+        return manager.update(budgetMillis);
+    }
+
+    float progress() {
+        return manager.getProgress();
+    }
+
+    TextureAtlas entities() {
+        return manager.get(ENTITY_ATLAS, TextureAtlas.class);
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
@@ -0,0 +1,82 @@
+package com.game.oop;
+
+/**
+ * Hot-path geometry helpers. Range and overlap checks compare squared distances, so none of them take a square
+ * root. The batched kernels run over primitive arrays; they use the Vector API through {@link VectorMath} when the
+ * JVM has {@code jdk.incubator.vector} and plain loops otherwise.
+ */
+final class GameMath {
+    /** Whether the incubating Vector API module was added to this JVM. */
+    static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private GameMath() {
+    }
+
+    static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt(distanceSquared(x1, y1, x2, y2));
+    }
+
+    static double distanceSquared(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    /** True when the two points are at most {@code radius} apart. */
+    static boolean withinRange(double x1, double y1, double x2, double y2, double radius) {
+        return distanceSquared(x1, y1, x2, y2) <= radius * radius;
+    }
+
+    /** True when two circles strictly overlap; touching edges do not count. */
+    static boolean circlesOverlap(double x1, double y1, double r1, double x2, double y2, double r2) {
+        double reach = r1 + r2;
+        return distanceSquared(x1, y1, x2, y2) < reach * reach;
+    }
+
+    /** True when a circle strictly overlaps the axis-aligned box at {@code (left, top)} of the given size. */
+    static boolean circleOverlapsRect(double cx, double cy, double radius,
+                                      double left, double top, double width, double height) {
+        double nearestX = clamp(cx, left, left + width);
+        double nearestY = clamp(cy, top, top + height);
+        return distanceSquared(cx, cy, nearestX, nearestY) < radius * radius;
+    }
+
+    /** True when two axis-aligned boxes strictly overlap. */
+    static boolean rectsOverlap(double ax, double ay, double aw, double ah,
+                                double bx, double by, double bw, double bh) {
+        return ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by;
+    }
+
+    /**
+     * Clears {@code flags[i]} for every point in {@code [0, count)} inside the box {@code [minX, maxX) x
+     * [minY, maxY)} and returns how many of those flags are still set.
+     */
+    static int clearInsideBox(double[] xs, double[] ys, boolean[] flags, int count,
+                              double minX, double minY, double maxX, double maxY) {
+        return VECTOR ? VectorMath.clearInsideBox(xs, ys, flags, count, minX, minY, maxX, maxY)
+                : clearInsideBoxScalar(xs, ys, flags, 0, count, minX, minY, maxX, maxY);
+    }
+
+    /** {@link #clearInsideBox} over {@code [from, to)}; also the tail of the vector version. */
+    static int clearInsideBoxScalar(double[] xs, double[] ys, boolean[] flags, int from, int to,
+                                    double minX, double minY, double maxX, double maxY) {
+        int set = 0;
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            // Non-short-circuit operators keep the loop free of branches on the coordinates.
+            boolean kept = flags[i] & !(x >= minX & x < maxX & y >= minY & y < maxY);
+            flags[i] = kept;
+            set += kept ? 1 : 0;
+        }
+        return set;
+    }
+
+    static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,476 @@
+package com.game.oop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Headless multiplayer server. One thread owns a {@link Selector} and does all accepting and reading: it parses
+ * {@link NetProtocol} frames, queues each client's inputs, stores its acknowledged snapshot, and hands HELLOs to
+ * the named {@link ServerRoom}, opening it on first use. Rooms are ticked at a fixed rate by a {@link RoomScheduler},
+ * each on its own virtual thread, and write their snapshots themselves, so the network thread never touches a
+ * {@link GameWorld} and a slow room only delays its own clients. Every few seconds a summary line is logged with
+ * how late ticks start; the laggiest rooms are named, and at DEBUG level every room is listed. With a checkpoint
+ * directory every room is saved there as a {@link CheckpointFile} every few seconds and when it closes, and a room
+ * opened under a saved name resumes from its checkpoint.
+ *
+ * <pre>
+ * --port N            TCP port (default 7777, 0 picks a free one)
+ * --tick-rate HZ      simulation ticks per second (default 60)
+ * --snapshot-rate HZ  snapshots per second, a divisor of the tick rate (default 20)
+ * --threads N         room ticks that may run at once (default: available processors)
+ * --seed L            base seed; every room mixes in its name (default: random per room)
+ * --checkpoint-dir D  directory for room checkpoints (default: none, rooms are not saved)
+ * --checkpoint-seconds S  seconds between a room's checkpoints (default 10)
+ * </pre>
+ */
+final class GameServer implements Closeable {
+    private static final System.Logger LOG = System.getLogger(GameServer.class.getName());
+    static final int MAX_PLAYERS = 8;
+    static final int DEFAULT_SNAPSHOT_RATE = 20;
+    static final double DEFAULT_CHECKPOINT_SECONDS = 10;
+    private static final int MAX_ROOM_NAME = 64;
+    private static final int INPUT_QUEUE = 32;
+    /** Inputs a client may be ahead of its room, in ticks; about 130 ms at the default rate. */
+    private static final int MAX_INPUT_BACKLOG = 8;
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    /** Rooms named in the summary line. */
+    private static final int LAGGIEST_ROOMS = 3;
+
+    /**
+     * One TCP client. The network thread queues its inputs and acknowledgements, the room thread consumes them.
+     * Inputs wait in a small ring, packed as {@code sequence << 8 | mask}, so the room can apply exactly one per
+     * tick in the order the client predicted them.
+     */
+    static final class Connection {
+        final SocketChannel channel;
+        private ByteBuffer in = ByteBuffer.allocate(256);
+        private ServerRoom room;
+        private final long[] inputs = new long[INPUT_QUEUE];
+        private int inputHead;
+        private int inputCount;
+        private int lastInputSequence;
+        volatile int ackedSequence;
+        volatile boolean closed;
+        /** Room thread only: the player this client controls and bytes the socket has not taken yet. */
+        Player player;
+        ByteBuffer pending = ByteBuffer.allocate(0);
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private synchronized void offerInput(int sequence, int mask) {
+            if (sequence <= lastInputSequence) {
+                return;
+            }
+            lastInputSequence = sequence;
+            if (inputCount == inputs.length) {
+                inputHead = (inputHead + 1) % inputs.length;
+                inputCount--;
+            }
+            inputs[(inputHead + inputCount) % inputs.length] = (long) sequence << 8 | mask;
+            inputCount++;
+        }
+
+        /**
+         * The next input to apply, or -1 if none has arrived. Inputs beyond {@link #MAX_INPUT_BACKLOG} are dropped
+         * first, so a client whose clock runs fast cannot build up lag.
+         */
+        synchronized long pollInput() {
+            if (inputCount == 0) {
+                return -1;
+            }
+            int skip = Math.max(0, inputCount - MAX_INPUT_BACKLOG);
+            inputHead = (inputHead + skip) % inputs.length;
+            inputCount -= skip + 1;
+            long input = inputs[inputHead];
+            inputHead = (inputHead + 1) % inputs.length;
+            return input;
+        }
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final RoomScheduler scheduler;
+    private final ConcurrentHashMap<String, ServerRoom> rooms = new ConcurrentHashMap<>();
+    private final double tickRate;
+    private final int ticksPerSnapshot;
+    private final Long seed;
+    private final Path checkpointDir;
+    private final int checkpointTicks;
+    private final Thread networkThread;
+    private volatile boolean running = true;
+
+    private final AtomicInteger clients = new AtomicInteger();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder tickNanos = new LongAdder();
+    private final LongAccumulator maxTickNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder fullSnapshots = new LongAdder();
+    private final LongAdder skippedSnapshots = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder checkpoints = new LongAdder();
+    private final LongAdder checkpointNanos = new LongAdder();
+
+    private GameServer(int port, double tickRate, int snapshotRate, int threads, Long seed, Path checkpointDir,
+            double checkpointSeconds) throws IOException {
+        if (snapshotRate <= 0 || tickRate % snapshotRate != 0) {
+            throw new IllegalArgumentException("Snapshot rate " + snapshotRate + " must divide the tick rate "
+                    + tickRate);
+        }
+        this.tickRate = tickRate;
+        this.ticksPerSnapshot = (int) (tickRate / snapshotRate);
+        this.seed = seed;
+        this.checkpointDir = checkpointDir;
+        this.checkpointTicks = Math.max(1, (int) Math.round(checkpointSeconds * tickRate));
+        if (checkpointDir != null) {
+            Files.createDirectories(checkpointDir);
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        scheduler = new RoomScheduler(threads);
+        networkThread = new Thread(this::serve, "server-network");
+    }
+
+    /**
+     * Binds {@code port} and starts serving; {@link #close()} stops. A {@code null} {@code checkpointDir} turns
+     * room checkpoints off.
+     */
+    static GameServer start(int port, double tickRate, int snapshotRate, int threads, Long seed, Path checkpointDir,
+            double checkpointSeconds) throws IOException {
+        GameServer gameServer = new GameServer(port, tickRate, snapshotRate, threads, seed, checkpointDir,
+                checkpointSeconds);
+        gameServer.networkThread.start();
+        return gameServer;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = NetProtocol.DEFAULT_PORT;
+        double tickRate = GameWorld.DEFAULT_TICK_RATE;
+        int snapshotRate = DEFAULT_SNAPSHOT_RATE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Long seed = null;
+        Path checkpointDir = null;
+        double checkpointSeconds = DEFAULT_CHECKPOINT_SECONDS;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--tick-rate" -> tickRate = Double.parseDouble(value);
+                    case "--snapshot-rate" -> snapshotRate = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--checkpoint-dir" -> checkpointDir = Path.of(value);
+                    case "--checkpoint-seconds" -> checkpointSeconds = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            }
+            GameServer gameServer = start(port, tickRate, snapshotRate, threads, seed, checkpointDir,
+                    checkpointSeconds);
+            System.err.printf("Serving on port %d at %.0f ticks/s, %d snapshots/s%n", gameServer.port(), tickRate,
+                    snapshotRate);
+            Runtime.getRuntime().addShutdownHook(new Thread(gameServer::close));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    int port() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    double tickRate() {
+        return tickRate;
+    }
+
+    int ticksPerSnapshot() {
+        return ticksPerSnapshot;
+    }
+
+    /** Where room checkpoints go, or {@code null} if rooms are not saved. */
+    Path checkpointDir() {
+        return checkpointDir;
+    }
+
+    /** Ticks between a room's checkpoints. */
+    int checkpointTicks() {
+        return checkpointTicks;
+    }
+
+    int roomCount() {
+        return rooms.size();
+    }
+
+    RoomScheduler scheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            networkThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rooms.values().forEach(ServerRoom::cancel);
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        closeQuietly(selector);
+    }
+
+    private void serve() {
+        long nextReport = System.nanoTime() + REPORT_NANOS;
+        while (running) {
+            try {
+                selector.select(TimeUnit.NANOSECONDS.toMillis(REPORT_NANOS));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read((Connection) key.attachment());
+                    }
+                }
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.ERROR, "Selector failed; stopping the server", e);
+                running = false;
+            }
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                report(now - nextReport + REPORT_NANOS);
+                nextReport = now + REPORT_NANOS;
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            clients.incrementAndGet();
+        }
+    }
+
+    private void read(Connection connection) {
+        try {
+            if (connection.channel.read(connection.in) < 0) {
+                disconnect(connection);
+                return;
+            }
+            ByteBuffer in = connection.in;
+            in.flip();
+            int length;
+            while ((length = NetProtocol.frameLength(in)) >= 0) {
+                int start = in.position() + Integer.BYTES;
+                in.position(start + length);
+                handle(connection, in.slice(start, length));
+            }
+            in.compact();
+            if (!in.hasRemaining()) {
+                connection.in = NetProtocol.grow(in);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.log(System.Logger.Level.DEBUG, "Dropping client: " + e);
+            disconnect(connection);
+        }
+    }
+
+    private void handle(Connection connection, ByteBuffer message) throws IOException {
+        byte tag = message.get();
+        switch (tag) {
+            case NetProtocol.HELLO -> {
+                int version = NetProtocol.getVarInt(message);
+                if (version != NetProtocol.VERSION) {
+                    throw new IOException("Client speaks protocol " + version + ", not " + NetProtocol.VERSION);
+                }
+                String name = NetProtocol.getString(message);
+                if (connection.room != null || name.isEmpty() || name.length() > MAX_ROOM_NAME) {
+                    throw new IOException("Bad HELLO for room '" + name + "'");
+                }
+                join(connection, name);
+            }
+            case NetProtocol.INPUT -> {
+                int sequence = NetProtocol.getVarInt(message);
+                connection.offerInput(sequence, message.get() & (InputMask.COMBINATIONS - 1));
+            }
+            case NetProtocol.ACK -> {
+                int sequence = NetProtocol.getVarInt(message);
+                if (sequence > connection.ackedSequence) {
+                    connection.ackedSequence = sequence;
+                }
+            }
+            default -> throw new IOException("Unknown message tag " + tag);
+        }
+    }
+
+    /** A room that is closing refuses joins; a fresh room under the same name then takes them. */
+    private void join(Connection connection, String name) {
+        while (true) {
+            ServerRoom room = rooms.computeIfAbsent(name, this::openRoom);
+            if (room.offer(connection)) {
+                connection.room = room;
+                return;
+            }
+            rooms.remove(name, room);
+        }
+    }
+
+    private ServerRoom openRoom(String name) {
+        long roomSeed = seed == null ? GameWorld.randomSeed() : seed ^ name.hashCode() * 0x9E3779B97F4A7C15L;
+        ServerRoom room = new ServerRoom(this, name, roomSeed);
+        room.schedule();
+        return room;
+    }
+
+    void roomClosed(ServerRoom room) {
+        rooms.remove(room.name, room);
+    }
+
+    /** Closes the client's socket. Safe from any thread and more than once; its room drops the player next tick. */
+    void disconnect(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        clients.decrementAndGet();
+        SelectionKey key = connection.channel.keyFor(selector);
+        if (key != null) {
+            key.cancel();
+        }
+        closeQuietly(connection.channel);
+    }
+
+    /** Records {@code steps} ticks run back to back in {@code nanos}; a batch counts its mean toward the max. */
+    void recordTick(long nanos, int steps) {
+        ticks.add(steps);
+        tickNanos.add(nanos);
+        maxTickNanos.accumulate(nanos / steps);
+    }
+
+    void recordSnapshot(int bytes, boolean full) {
+        snapshots.increment();
+        bytesSent.add(bytes);
+        if (full) {
+            fullSnapshots.increment();
+        }
+    }
+
+    void recordSkippedSnapshot() {
+        skippedSnapshots.increment();
+    }
+
+    void recordCheckpoint(long nanos) {
+        checkpoints.increment();
+        checkpointNanos.add(nanos);
+    }
+
+    private void report(long elapsedNanos) {
+        long tickCount = ticks.sumThenReset();
+        long snapshotCount = snapshots.sumThenReset();
+        long fullCount = fullSnapshots.sumThenReset();
+        long bytes = bytesSent.sumThenReset();
+        long skipped = skippedSnapshots.sumThenReset();
+        long busyNanos = tickNanos.sumThenReset();
+        long maxNanos = maxTickNanos.getThenReset();
+        long checkpointCount = checkpoints.sumThenReset();
+        long checkpointBusyNanos = checkpointNanos.sumThenReset();
+        if (tickCount == 0 && clients.get() == 0) {
+            return;
+        }
+        double seconds = elapsedNanos / 1e9;
+        LOG.log(System.Logger.Level.INFO, String.format(
+                "rooms=%d clients=%d ticks/s=%.0f tick mean=%.1fus max=%.1fus snapshots/s=%.0f full=%d skipped=%d"
+                        + " bytes/snapshot=%.0f out=%.1fKB/s checkpoints/s=%.0f checkpoint mean=%.1fus",
+                rooms.size(), clients.get(), tickCount / seconds, tickCount == 0 ? 0 : busyNanos / 1e3 / tickCount,
+                maxNanos / 1e3, snapshotCount / seconds, fullCount, skipped,
+                snapshotCount == 0 ? 0 : (double) bytes / snapshotCount, bytes / 1024.0 / seconds,
+                checkpointCount / seconds, checkpointCount == 0 ? 0 : checkpointBusyNanos / 1e3 / checkpointCount));
+        reportLag();
+    }
+
+    /** Tick lag per room: how late each room's ticks started, in milliseconds, since the last report. */
+    private void reportLag() {
+        List<RoomLag> lags = new ArrayList<>(rooms.size());
+        for (ServerRoom room : rooms.values()) {
+            RoomScheduler.Handle ticks = room.ticks();
+            lags.add(new RoomLag(room.name, ticks.meanLagNanos() / 1e6, ticks.takeMaxLagNanos() / 1e6,
+                    ticks.overruns(), ticks.skippedTicks(), ticks.isBatched()));
+        }
+        if (lags.isEmpty()) {
+            return;
+        }
+        lags.sort(Comparator.comparingDouble(RoomLag::maxMillis).reversed());
+        double meanMillis = 0;
+        long overruns = 0;
+        long skipped = 0;
+        int idle = 0;
+        for (RoomLag lag : lags) {
+            meanMillis += lag.meanMillis() / lags.size();
+            overruns += lag.overruns();
+            skipped += lag.skippedTicks();
+            idle += lag.idle() ? 1 : 0;
+            LOG.log(System.Logger.Level.DEBUG, lag::toString);
+        }
+        LOG.log(System.Logger.Level.INFO, String.format(
+                "tick lag mean=%.2fms max=%.2fms overruns=%d skipped=%d idle rooms=%d laggiest=%s", meanMillis,
+                lags.get(0).maxMillis(), overruns, skipped, idle,
+                lags.subList(0, Math.min(LAGGIEST_ROOMS, lags.size())).stream()
+                        .map(lag -> String.format("%s(%.2fms)", lag.room(), lag.maxMillis()))
+                        .collect(Collectors.joining(","))));
+    }
+
+    private record RoomLag(String room, double meanMillis, double maxMillis, long overruns, long skippedTicks,
+            boolean idle) {
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.DEBUG, "Close failed", e);
+        }
+    }
+}
@@ -0,0 +1,1192 @@
+package com.game.oop;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+
+public class GameWorld {
+    private static final double RESPAWN_DELAY = 1.0;
+    static final double MESSAGE_DURATION = 2.5;
+    static final double DOOR_VISIBILITY_RADIUS = 150;
+    private static final double GRID_CELL_SIZE = 64;
+    /** A new size must hold this long before the stage is laid out for it, so dragging a window edge re-rolls once. */
+    private static final double RESIZE_SETTLE_SECONDS = 0.25;
+    /** Gap between players placed side by side at a stage start. */
+    private static final double PLAYER_SPACING = 6;
+    static final double DEFAULT_TICK_RATE = 60;
+
+    private static final MonsterKind[] MONSTER_KINDS = MonsterKind.values();
+    private static final DoorType[] DOOR_TYPES = DoorType.values();
+
+    private long seed;
+    private final WorldRandom random;
+    private final FixedTimestep timestep;
+    private final TickProfiler profiler = new TickProfiler("simulation");
+    /** Everyone in the world; the first entry is {@link #player}. */
+    private final List<Player> players = new ArrayList<>();
+    /** The first player: the one single-player front ends drive and draw. */
+    private Player player;
+    /** The player the grid visitors below are checking. */
+    private Player checkedPlayer;
+    /** Chunk of each player this tick, on dungeon stages; see {@link #markDormant()}. */
+    private int nextPlayerId;
+    private final List<Door> doors = new ArrayList<>();
+    private final MonsterStore monsters = new MonsterStore();
+    private MonsterTickRunner monsterRunner = new MonsterTickRunner();
+    private final ProjectilePool projectiles = new ProjectilePool();
+    private final SpatialGrid doorGrid = new SpatialGrid(GRID_CELL_SIZE);
+    private final SpatialGrid monsterGrid = new SpatialGrid(GRID_CELL_SIZE);
+    private final SpatialGrid projectileGrid = new SpatialGrid(GRID_CELL_SIZE);
+    private final DoorPlacer doorPlacer = new DoorPlacer();
+    private final TileMap map = new TileMap();
+    private final IntPredicate missesMonster = this::missesMonster;
+    private final IntPredicate missesProjectile = this::missesProjectile;
+    private final IntPredicate recordTouchedDoor = this::recordTouchedDoor;
+    private final IntPredicate collectVisibleDoor = this::collectVisibleDoor;
+
+    /** Size of the world: the view on open stages, the whole map on dungeon stages. */
+    private double width;
+    private double height;
+    private double viewWidth;
+    private double viewHeight;
+    /** Whether the current stage is a {@link TileMap} dungeon rather than one open room the size of the view. */
+    private boolean dungeon;
+    private double layoutWidth;
+    private double layoutHeight;
+    private double resizeSettlesAt = -1;
+    private int stage = 1;
+    private double currentTime;
+    private boolean dead = false;
+    private double deathStartedAt = -10;
+    private double messageUntil = -1;
+    private String message = null;
+    private StageTable stages = StageTable.DEFAULTS;
+    private final AtomicReference<StageTable> pendingStages = new AtomicReference<>();
+    private double doorSize = StageTable.DEFAULTS.doorSize();
+    private int doorCountOverride = -1;
+    private boolean playerInvulnerable = false;
+    private int layoutVersion;
+    private int touchedDoor;
+    private RenderFrame frameTarget;
+    private ReplayRecorder recorder;
+    private MonsterTuning tuning = MonsterTuning.DEFAULTS;
+    private DoorType lastDoorTaken;
+
+    GameWorld(double width, double height) {
+        this(width, height, DEFAULT_TICK_RATE);
+    }
+
+    GameWorld(double width, double height, double ticksPerSecond) {
+        this(width, height, ticksPerSecond, randomSeed());
+    }
+
+    /**
+     * All door layouts and monster spawns draw from one generator seeded with {@code seed}, and every monster
+     * gets its own stream split off it. The same seed, size and per-tick inputs therefore replay the same game.
+     */
+    GameWorld(double width, double height, double ticksPerSecond, long seed) {
+        this.seed = seed;
+        this.random = new WorldRandom(seed);
+        this.timestep = new FixedTimestep(ticksPerSecond);
+        this.viewWidth = Math.max(400, width);
+        this.viewHeight = Math.max(300, height);
+        this.width = viewWidth;
+        this.height = viewHeight;
+        double startX = this.width / 2.0 - 10;
+        double startY = this.height / 2.0 - 10;
+        this.player = new Player(nextPlayerId++, startX, startY, Player.SIZE, Player.SPEED);
+        players.add(player);
+        spawnDoors();
+    }
+
+    static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /** The seed given with {@code -Ddungeon.seed=<long>}, or a random one. */
+    static long configuredSeed() {
+        Long seed = Long.getLong("dungeon.seed");
+        return seed != null ? seed : randomSeed();
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    double getTickRate() {
+        return 1.0 / timestep.getTickSeconds();
+    }
+
+    boolean isRecording() {
+        return recorder != null;
+    }
+
+    /** Receives every tick's inputs and every resize from now on; {@code null} stops recording. */
+    void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    double getWidth() {
+        return width;
+    }
+
+    double getHeight() {
+        return height;
+    }
+
+    boolean isDungeon() {
+        return dungeon;
+    }
+
+    TileMap getMap() {
+        return map;
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    List<Player> getPlayers() {
+        return players;
+    }
+
+    /** Adds a player at the stage's starting spot, beside the others; multiplayer rooms call this on join. */
+    Player addPlayer() {
+        Player added = new Player(nextPlayerId++, 0, 0, player.size, player.baseSpeed);
+        players.add(added);
+        if (dungeon) {
+            placeInStartRoom(added, players.size() - 1);
+        } else {
+            placeBeside(added, players.size() - 1, width / 2.0, height / 2.0);
+        }
+        return added;
+    }
+
+    /** Removes {@code leaving} unless it is the only player left; a world always has a first player. */
+    void removePlayer(Player leaving) {
+        if (players.size() > 1 && players.remove(leaving)) {
+            player = players.get(0);
+        }
+    }
+
+    /**
+     * The player closest to {@code (x, y)}; monsters aim at it. Safe to call from monster stripes, which only
+     * read players.
+     */
+    Player nearestPlayer(double x, double y) {
+        Player nearest = player;
+        double best = Double.POSITIVE_INFINITY;
+        for (int p = 0; p < players.size(); p++) {
+            Player candidate = players.get(p);
+            double distance = GameMath.distanceSquared(x, y, candidate.centerX(), candidate.centerY());
+            if (distance < best) {
+                best = distance;
+                nearest = candidate;
+            }
+        }
+        return nearest;
+    }
+
+    ProjectilePool getProjectiles() {
+        return projectiles;
+    }
+
+    MonsterStore getMonsters() {
+        return monsters;
+    }
+
+    List<Door> getDoors() {
+        return doors;
+    }
+
+    double getCurrentTime() {
+        return currentTime;
+    }
+
+    int getStage() {
+        return stage;
+    }
+
+    boolean isDead() {
+        return dead;
+    }
+
+    boolean isPlayerStunned() {
+        return currentTime < player.stunnedUntil;
+    }
+
+    /** The transient banner message, or {@code null} once it has expired. */
+    String getActiveMessage() {
+        return message != null && currentTime < messageUntil ? message : null;
+    }
+
+    /** Shows {@code text}, one of the {@link HudText} constants, as the banner message. */
+    void showMessage(String text) {
+        message = text;
+        messageUntil = currentTime + MESSAGE_DURATION;
+    }
+
+    /** Overrides the stage table's door count for every stage; benchmarks use this to scale layouts. */
+    void setDoorCount(int doorCount) {
+        this.doorCountOverride = doorCount;
+    }
+
+    void setPlayerInvulnerable(boolean playerInvulnerable) {
+        this.playerInvulnerable = playerInvulnerable;
+    }
+
+    void addMonster(MonsterKind kind, double x, double y) {
+        int id = monsters.add(kind, x, y, tuning.speed(kind), tuning.skillCooldown(kind), random.nextLong());
+        monsterGrid.insert(id, x, y);
+    }
+
+    /** Per-phase timings of this world's ticks; front ends may also record their draw passes here. */
+    TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    StageTable getStageTable() {
+        return stages;
+    }
+
+    /** Uses {@code table} for layouts and monsters spawned from now on. Simulation thread only. */
+    void setStageTable(StageTable table) {
+        stages = table;
+        tuning = table.tuning();
+        stage = table.clampStage(stage);
+    }
+
+    /**
+     * Hands over a reloaded table from any thread. The next tick adopts it and lays out the current stage again,
+     * so edits show up immediately.
+     */
+    void offerStageTable(StageTable table) {
+        pendingStages.set(table);
+    }
+
+    /** Tuning for monsters spawned from now on. */
+    void setMonsterTuning(MonsterTuning tuning) {
+        this.tuning = tuning;
+    }
+
+    /** Restarts the player in the middle of a fresh layout for {@code stage}, as if they had just walked in. */
+    void startAtStage(int stage) {
+        this.stage = stages.clampStage(stage);
+        clearProjectiles();
+        centerPlayers();
+        spawnDoors();
+    }
+
+    /** The PASS or BACK door taken since the last call, or {@code null}; lets tools detect stage exits. */
+    DoorType takeLastDoor() {
+        DoorType door = lastDoorTaken;
+        lastDoorTaken = null;
+        return door;
+    }
+
+    /**
+     * Switches monster AI between inline updates and striped updates on the common fork/join pool. Both modes
+     * produce the same world state; parallel mode only pays off for large hordes.
+     */
+    void setParallelMonsterUpdates(boolean parallel) {
+        monsterRunner = parallel ? MonsterTickRunner.parallel() : new MonsterTickRunner();
+    }
+
+    void clearMonsters() {
+        monsters.clear();
+        monsterGrid.clear();
+    }
+
+    void spawnProjectile(double x, double y, double dirX, double dirY, double speed) {
+        int id = projectiles.spawn(x, y, dirX, dirY, speed);
+        projectileGrid.insert(id, x, y);
+    }
+
+    private void clearProjectiles() {
+        projectiles.clear();
+        projectileGrid.clear();
+    }
+
+    /** Removes a projectile; the pool moves its last slot into the gap, so the grid entry follows it. */
+    private void removeProjectileAt(int index) {
+        int last = projectiles.size() - 1;
+        projectileGrid.remove(index);
+        projectiles.removeAt(index);
+        if (index != last) {
+            projectileGrid.remove(last);
+            projectileGrid.insert(index, projectiles.x[index], projectiles.y[index]);
+        }
+    }
+
+    /**
+     * Copies everything a renderer draws into {@code frame}: the players, the doors within sight of the first one,
+     * monsters with their telegraph and pulse rings, projectiles and the HUD rows. Dormant monsters and projectiles
+     * are left out. Called once per drawn frame.
+     */
+    void writeFrame(RenderFrame frame) {
+        long start = profiler.start();
+        frame.clearEntities();
+        frame.width = viewWidth;
+        frame.height = viewHeight;
+        frame.worldWidth = width;
+        frame.worldHeight = height;
+        frame.time = currentTime;
+        frame.layoutVersion = layoutVersion;
+        frame.tickSeconds = timestep.getTickSeconds();
+        frame.baseAlpha = timestep.alpha();
+        frame.alpha = frame.baseAlpha;
+
+        frame.playerPrevX = player.prevX;
+        frame.playerPrevY = player.prevY;
+        frame.playerX = player.x;
+        frame.playerY = player.y;
+        frame.playerSize = player.size;
+        frame.playerStunned = isPlayerStunned();
+        for (int p = 1; p < players.size(); p++) {
+            Player other = players.get(p);
+            frame.addOther(other.prevX, other.prevY, other.x, other.y, currentTime < other.stunnedUntil);
+        }
+        if (dungeon) {
+            writeTiles(frame);
+        }
+
+        double px = player.centerX();
+        double py = player.centerY();
+        double reach = DOOR_VISIBILITY_RADIUS + doorSize / 2.0;
+        frameTarget = frame;
+        doorGrid.query(px - reach, py - reach, px + reach, py + reach, collectVisibleDoor);
+        frameTarget = null;
+
+        for (int i = 0; i < monsters.size(); i++) {
+            if (monsters.dormant[i]) {
+                continue;
+            }
+            MonsterKind kind = monsters.kindOf(i);
+            frame.addMonster(monsters.prevX[i], monsters.prevY[i], monsters.x[i], monsters.y[i], monsters.radius[i],
+                    kind);
+            if ((kind.components & MonsterStore.WARP) != 0 && monsters.phase[i] == MonsterStore.TELEGRAPHING) {
+                double tx = monsters.targetX[i];
+                double ty = monsters.targetY[i];
+                frame.addRing(tx, ty, tx, ty, WarpSystem.telegraphRadius(monsters, i, currentTime),
+                        RenderFrame.RING_TELEGRAPH);
+            } else if ((kind.components & MonsterStore.PULSE) != 0) {
+                double ring = PulseSystem.pulseRadius(monsters, i, currentTime);
+                if (ring >= 0) {
+                    frame.addRing(monsters.prevX[i], monsters.prevY[i], monsters.x[i], monsters.y[i], ring,
+                            RenderFrame.RING_PULSE);
+                }
+            }
+        }
+        frame.copyProjectiles(projectiles);
+
+        frame.hud[0] = HudText.stageCounter(stage);
+        frame.hud[1] = isPlayerStunned() ? HudText.STUNNED : null;
+        frame.hud[2] = dead ? HudText.YOU_DIED : null;
+        frame.hud[3] = getActiveMessage();
+        profiler.lap(TickProfiler.Phase.FRAME, start);
+    }
+
+    /**
+     * Quantises what every multiplayer client sees into {@code snapshot}: the stage header, all players, monsters,
+     * projectiles and doors. Unlike {@link #writeFrame} nothing is culled, since each client has its own view;
+     * dormant entities keep still, so they cost nothing in a delta.
+     */
+    void writeSnapshot(Snapshot snapshot, int tick) {
+        snapshot.clear();
+        int[] header = snapshot.values[Snapshot.HEADER];
+        header[Snapshot.TICK] = tick;
+        header[Snapshot.STAGE] = stage;
+        header[Snapshot.FLAGS] = dead ? Snapshot.FLAG_DEAD : 0;
+        header[Snapshot.LAYOUT_VERSION] = layoutVersion;
+        header[Snapshot.WIDTH] = Snapshot.position(width);
+        header[Snapshot.HEIGHT] = Snapshot.position(height);
+        header[Snapshot.DOOR_SIZE] = Snapshot.position(doorSize);
+        header[Snapshot.MAP_SEED_HIGH] = dungeon ? (int) (map.seed() >>> 32) : 0;
+        header[Snapshot.MAP_SEED_LOW] = dungeon ? (int) map.seed() : 0;
+        header[Snapshot.MAP_COLUMNS] = dungeon ? map.columns() : 0;
+        header[Snapshot.MAP_ROWS] = dungeon ? map.rows() : 0;
+
+        for (Player each : players) {
+            int i = snapshot.add(Snapshot.PLAYERS);
+            int[] values = snapshot.values[Snapshot.PLAYERS];
+            values[i] = each.id;
+            values[i + 1] = Snapshot.position(each.x);
+            values[i + 2] = Snapshot.position(each.y);
+            values[i + 3] = stunTicksLeft(each);
+            values[i + 4] = each.inputSequence;
+        }
+        for (int m = 0; m < monsters.size(); m++) {
+            int i = snapshot.add(Snapshot.MONSTERS);
+            int[] values = snapshot.values[Snapshot.MONSTERS];
+            values[i] = monsters.kind[m];
+            values[i + 1] = Snapshot.position(monsters.x[m]);
+            values[i + 2] = Snapshot.position(monsters.y[m]);
+            MonsterKind kind = monsters.kindOf(m);
+            if ((kind.components & MonsterStore.WARP) != 0 && monsters.phase[m] == MonsterStore.TELEGRAPHING) {
+                values[i] |= Snapshot.FLAG_TELEGRAPHING;
+                values[i + 3] = Snapshot.position(WarpSystem.telegraphRadius(monsters, m, currentTime));
+                values[i + 4] = Snapshot.position(monsters.targetX[m]);
+                values[i + 5] = Snapshot.position(monsters.targetY[m]);
+            } else if ((kind.components & MonsterStore.PULSE) != 0) {
+                double ring = PulseSystem.pulseRadius(monsters, m, currentTime);
+                values[i + 3] = ring >= 0 ? Snapshot.position(ring) : 0;
+                values[i + 4] = ring >= 0 ? values[i + 1] : 0;
+                values[i + 5] = ring >= 0 ? values[i + 2] : 0;
+            } else {
+                values[i + 3] = 0;
+                values[i + 4] = 0;
+                values[i + 5] = 0;
+            }
+        }
+        for (int p = 0; p < projectiles.size(); p++) {
+            int i = snapshot.add(Snapshot.PROJECTILES);
+            int[] values = snapshot.values[Snapshot.PROJECTILES];
+            values[i] = Snapshot.position(projectiles.x[p]);
+            values[i + 1] = Snapshot.position(projectiles.y[p]);
+        }
+        for (Door door : doors) {
+            int i = snapshot.add(Snapshot.DOORS);
+            int[] values = snapshot.values[Snapshot.DOORS];
+            values[i] = Snapshot.position(door.getX());
+            values[i + 1] = Snapshot.position(door.getY());
+            values[i + 2] = door.getType().ordinal();
+        }
+    }
+
+    /** Bytes {@link #writeCheckpoint} needs for the world as it is now. */
+    int checkpointSize() {
+        return Math.toIntExact(Checkpoint.size(players.size(), doors.size(), monsters.size(), projectiles.size()));
+    }
+
+    /**
+     * Writes everything the simulation needs to carry on from this tick in the {@link Checkpoint} layout, starting
+     * at {@code out}'s position; {@code out} must have {@link #checkpointSize()} bytes left and the checkpoint
+     * byte order.
+     */
+    void writeCheckpoint(ByteBuffer out) {
+        out.putLong(seed).putLong(random.state()).putLong(dungeon ? map.seed() : 0);
+        out.putDouble(getTickRate()).putDouble(viewWidth).putDouble(viewHeight).putDouble(width).putDouble(height)
+                .putDouble(layoutWidth).putDouble(layoutHeight);
+        out.putDouble(currentTime).putDouble(deathStartedAt).putDouble(messageUntil).putDouble(resizeSettlesAt)
+                .putDouble(doorSize);
+        out.putInt(stage).putInt(layoutVersion).putInt(nextPlayerId)
+                .putInt((dungeon ? Checkpoint.FLAG_DUNGEON : 0) | (dead ? Checkpoint.FLAG_DEAD : 0))
+                .putInt(dungeon ? map.columns() : 0).putInt(dungeon ? map.rows() : 0)
+                .putInt(Checkpoint.messageCode(message, stage));
+        out.putInt(players.size()).putInt(doors.size()).putInt(monsters.size()).putInt(projectiles.size());
+
+        for (Player each : players) {
+            out.putInt(each.id).putInt(each.inputSequence);
+            out.putDouble(each.x).putDouble(each.y).putDouble(each.prevX).putDouble(each.prevY).putDouble(each.size)
+                    .putDouble(each.baseSpeed).putDouble(each.speed).putDouble(each.stunnedUntil);
+        }
+        for (Door door : doors) {
+            out.putDouble(door.getX()).putDouble(door.getY()).putDouble(door.getSize());
+            out.putInt(door.getType().ordinal()).putInt(0);
+        }
+        for (int i = 0; i < monsters.size(); i++) {
+            out.put(monsters.kind[i]).put(monsters.phase[i]).putShort((short) 0).putInt(0);
+            out.putDouble(monsters.x[i]).putDouble(monsters.y[i]).putDouble(monsters.prevX[i])
+                    .putDouble(monsters.prevY[i]).putDouble(monsters.speed[i]).putDouble(monsters.skillCooldown[i])
+                    .putDouble(monsters.radius[i]).putDouble(monsters.lastSkillTime[i])
+                    .putDouble(monsters.phaseStartedAt[i]).putDouble(monsters.targetX[i])
+                    .putDouble(monsters.targetY[i]);
+            out.putLong(monsters.randomState[i]);
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            out.putDouble(projectiles.x[i]).putDouble(projectiles.y[i]).putDouble(projectiles.prevX[i])
+                    .putDouble(projectiles.prevY[i]).putDouble(projectiles.vx[i]).putDouble(projectiles.vy[i])
+                    .putDouble(projectiles.radius[i]);
+        }
+    }
+
+    /**
+     * Replaces this world's state with a checkpoint read from {@code in}'s position. Everything is checked before
+     * anything changes, so a rejected checkpoint leaves the world as it was. Inputs held by players are cleared;
+     * the stage table, tuning and tool settings stay this world's own, and a stage beyond that table is clamped
+     * to its last.
+     *
+     * @throws IllegalArgumentException if the checkpoint is truncated, malformed or from another tick rate
+     */
+    void readCheckpoint(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < Checkpoint.HEADER_BYTES) {
+            throw new IllegalArgumentException("Checkpoint is truncated");
+        }
+        double tickRate = in.getDouble(start + 3 * Long.BYTES);
+        if (tickRate != getTickRate()) {
+            throw new IllegalArgumentException("Checkpoint was taken at " + tickRate + " ticks/s, not "
+                    + getTickRate());
+        }
+        int counts = start + Checkpoint.HEADER_BYTES - 4 * Integer.BYTES;
+        int playerCount = in.getInt(counts);
+        int doorCount = in.getInt(counts + 4);
+        int monsterCount = in.getInt(counts + 8);
+        int projectileCount = in.getInt(counts + 12);
+        if (playerCount < 1 || doorCount < 0 || monsterCount < 0 || projectileCount < 0
+                || in.remaining() < Checkpoint.size(playerCount, doorCount, monsterCount, projectileCount)) {
+            throw new IllegalArgumentException("Checkpoint is truncated or malformed");
+        }
+        validateHeader(in, start);
+        validateRecords(in, start, playerCount, doorCount, monsterCount);
+
+        seed = in.getLong();
+        random.setState(in.getLong());
+        long mapSeed = in.getLong();
+        in.getDouble();
+        viewWidth = in.getDouble();
+        viewHeight = in.getDouble();
+        width = in.getDouble();
+        height = in.getDouble();
+        layoutWidth = in.getDouble();
+        layoutHeight = in.getDouble();
+        currentTime = in.getDouble();
+        deathStartedAt = in.getDouble();
+        messageUntil = in.getDouble();
+        resizeSettlesAt = in.getDouble();
+        doorSize = in.getDouble();
+        stage = stages.clampStage(in.getInt());
+        layoutVersion = in.getInt();
+        nextPlayerId = in.getInt();
+        int flags = in.getInt();
+        int mapColumns = in.getInt();
+        int mapRows = in.getInt();
+        message = Checkpoint.message(in.getInt(), stage);
+        in.position(in.position() + 4 * Integer.BYTES);
+        dungeon = (flags & Checkpoint.FLAG_DUNGEON) != 0;
+        dead = (flags & Checkpoint.FLAG_DEAD) != 0;
+        if (dungeon) {
+            map.reset(mapSeed, mapColumns, mapRows);
+        }
+        resetGrids();
+        touchedDoor = -1;
+        lastDoorTaken = null;
+
+        players.clear();
+        for (int p = 0; p < playerCount; p++) {
+            int id = in.getInt();
+            int inputSequence = in.getInt();
+            double x = in.getDouble();
+            double y = in.getDouble();
+            double prevX = in.getDouble();
+            double prevY = in.getDouble();
+            Player restored = new Player(id, x, y, in.getDouble(), in.getDouble());
+            restored.prevX = prevX;
+            restored.prevY = prevY;
+            restored.speed = in.getDouble();
+            restored.stunnedUntil = in.getDouble();
+            restored.inputSequence = inputSequence;
+            players.add(restored);
+        }
+        player = players.get(0);
+
+        doors.clear();
+        doorGrid.clear();
+        for (int d = 0; d < doorCount; d++) {
+            Door door = new Door(in.getDouble(), in.getDouble(), in.getDouble(), DOOR_TYPES[in.getInt()]);
+            in.getInt();
+            doors.add(door);
+            doorGrid.insert(d, door.centerX(), door.centerY());
+        }
+
+        clearMonsters();
+        for (int m = 0; m < monsterCount; m++) {
+            MonsterKind kind = MONSTER_KINDS[in.get()];
+            byte phase = in.get();
+            in.position(in.position() + 6);
+            double x = in.getDouble();
+            double y = in.getDouble();
+            double prevX = in.getDouble();
+            double prevY = in.getDouble();
+            double speed = in.getDouble();
+            double cooldown = in.getDouble();
+            double radius = in.getDouble();
+            double lastSkillTime = in.getDouble();
+            double phaseStartedAt = in.getDouble();
+            double targetX = in.getDouble();
+            double targetY = in.getDouble();
+            int id = monsters.add(kind, x, y, speed, cooldown, in.getLong());
+            monsters.prevX[id] = prevX;
+            monsters.prevY[id] = prevY;
+            monsters.radius[id] = radius;
+            monsters.phase[id] = phase;
+            monsters.lastSkillTime[id] = lastSkillTime;
+            monsters.phaseStartedAt[id] = phaseStartedAt;
+            monsters.targetX[id] = targetX;
+            monsters.targetY[id] = targetY;
+            monsterGrid.insert(id, x, y);
+        }
+
+        clearProjectiles();
+        for (int p = 0; p < projectileCount; p++) {
+            double x = in.getDouble();
+            double y = in.getDouble();
+            double prevX = in.getDouble();
+            double prevY = in.getDouble();
+            // A unit "speed" keeps the stored velocity bit for bit.
+            int id = projectiles.spawn(x, y, in.getDouble(), in.getDouble(), 1);
+            projectiles.prevX[id] = prevX;
+            projectiles.prevY[id] = prevY;
+            projectiles.radius[id] = in.getDouble();
+            projectileGrid.insert(id, x, y);
+        }
+    }
+
+    /**
+     * Rejects sizes that are not finite and positive, or larger than the largest map, and dungeon map dimensions
+     * that no stage table allows, before {@link #readCheckpoint} starts changing anything.
+     */
+    private static void validateHeader(ByteBuffer in, int start) {
+        double maxPixels = TileMap.MAX_SIDE * TileMap.TILE_SIZE;
+        int sizes = start + 3 * Long.BYTES + Double.BYTES;
+        for (int i = 0; i < 6; i++) {
+            double size = in.getDouble(sizes + i * Double.BYTES);
+            if (!(size > 0 && size <= maxPixels)) {
+                throw new IllegalArgumentException("Checkpoint has a world or view size of " + size);
+            }
+        }
+        int ints = start + 3 * Long.BYTES + 12 * Double.BYTES;
+        int flags = in.getInt(ints + 3 * Integer.BYTES);
+        int columns = in.getInt(ints + 4 * Integer.BYTES);
+        int rows = in.getInt(ints + 5 * Integer.BYTES);
+        int minSide = TileMap.MIN_CHUNKS * TileMap.CHUNK_SIZE;
+        if ((flags & Checkpoint.FLAG_DUNGEON) != 0
+                && (columns < minSide || columns > TileMap.MAX_SIDE || rows < minSide || rows > TileMap.MAX_SIDE)) {
+            throw new IllegalArgumentException("Checkpoint has a " + columns + "x" + rows + " tile map");
+        }
+    }
+
+    /** Rejects enum ordinals that are out of range before {@link #readCheckpoint} starts changing anything. */
+    private static void validateRecords(ByteBuffer in, int start, int playerCount, int doorCount, int monsterCount) {
+        int door = start + (int) Checkpoint.size(playerCount, 0, 0, 0);
+        for (int d = 0; d < doorCount; d++, door += Checkpoint.DOOR_BYTES) {
+            int type = in.getInt(door + 3 * Double.BYTES);
+            if (type < 0 || type >= DOOR_TYPES.length) {
+                throw new IllegalArgumentException("Checkpoint has an unknown door type " + type);
+            }
+        }
+        int monster = start + (int) Checkpoint.size(playerCount, doorCount, 0, 0);
+        for (int m = 0; m < monsterCount; m++, monster += Checkpoint.MONSTER_BYTES) {
+            int kind = in.get(monster);
+            int phase = in.get(monster + 1);
+            if (kind < 0 || kind >= MONSTER_KINDS.length
+                    || phase < MonsterStore.IDLE || phase > MonsterStore.TELEGRAPHING) {
+                throw new IllegalArgumentException("Checkpoint has an unknown monster kind or phase");
+            }
+        }
+    }
+
+    /**
+     * Ticks after the current one in which {@code player} will still be stunned, so a client can predict when it
+     * may move again.
+     */
+    private int stunTicksLeft(Player player) {
+        double left = (player.stunnedUntil - currentTime) / timestep.getTickSeconds();
+        return left > 0 ? (int) Math.ceil(left) - 1 : 0;
+    }
+
+    /** Copies the tiles under the view, with a margin wide enough for the drawn player to lag a tick behind. */
+    private void writeTiles(RenderFrame frame) {
+        double tile = TileMap.TILE_SIZE;
+        double viewX = RenderFrame.viewOrigin(player.centerX(), viewWidth, width);
+        double viewY = RenderFrame.viewOrigin(player.centerY(), viewHeight, height);
+        int column = Math.max(0, (int) (viewX / tile) - 1);
+        int row = Math.max(0, (int) (viewY / tile) - 1);
+        int columns = Math.min(map.columns(), (int) ((viewX + viewWidth) / tile) + 2) - column;
+        int rows = Math.min(map.rows(), (int) ((viewY + viewHeight) / tile) + 2) - row;
+        map.copyRegion(column, row, columns, rows, frame.beginTiles(tile, column, row, columns, rows));
+    }
+
+    private boolean collectVisibleDoor(int id) {
+        Door door = doors.get(id);
+        if (GameMath.withinRange(player.centerX(), player.centerY(), door.centerX(), door.centerY(),
+                DOOR_VISIBILITY_RADIUS)) {
+            frameTarget.addDoor(door.getX(), door.getY(), door.getSize(), door.getType());
+        }
+        return true;
+    }
+
+    /**
+     * Adopts a new world size. Before the first tick the stage is laid out again at once; after that the
+     * player is only kept inside the new bounds, and the re-layout waits until the size has stopped changing
+     * for {@link #RESIZE_SETTLE_SECONDS}. Sizes that do not change anything are ignored, and dungeon stages only
+     * change how much of the map is in view.
+     */
+    void resize(double newWidth, double newHeight) {
+        double clampedWidth = Math.max(400, newWidth);
+        double clampedHeight = Math.max(300, newHeight);
+        if (clampedWidth == viewWidth && clampedHeight == viewHeight) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.recordResize(newWidth, newHeight);
+        }
+        viewWidth = clampedWidth;
+        viewHeight = clampedHeight;
+        if (dungeon) {
+            return;
+        }
+        width = viewWidth;
+        height = viewHeight;
+        if (currentTime == 0) {
+            relayout();
+            return;
+        }
+        for (Player each : players) {
+            each.x = GameMath.clamp(each.x, 0, width - each.size);
+            each.y = GameMath.clamp(each.y, 0, height - each.size);
+            each.snapPrevious();
+        }
+        resizeSettlesAt = currentTime + RESIZE_SETTLE_SECONDS;
+    }
+
+    private void relayout() {
+        resizeSettlesAt = -1;
+        if (width != layoutWidth || height != layoutHeight) {
+            centerPlayers();
+            spawnDoors();
+        }
+    }
+
+    /** Hash of the simulation state, used to check that a replay reproduced its session exactly. */
+    long checksum() {
+        long hash = mix(Double.doubleToLongBits(currentTime), stage);
+        hash = mix(hash, dead ? 1 : 0);
+        for (Player each : players) {
+            hash = mix(hash, Double.doubleToLongBits(each.x));
+            hash = mix(hash, Double.doubleToLongBits(each.y));
+        }
+        for (Door door : doors) {
+            hash = mix(hash, Double.doubleToLongBits(door.getX()));
+            hash = mix(hash, Double.doubleToLongBits(door.getY()));
+        }
+        for (int i = 0; i < monsters.size(); i++) {
+            hash = mix(hash, Double.doubleToLongBits(monsters.x[i]));
+            hash = mix(hash, Double.doubleToLongBits(monsters.y[i]));
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            hash = mix(hash, Double.doubleToLongBits(projectiles.x[i]));
+            hash = mix(hash, Double.doubleToLongBits(projectiles.y[i]));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (Long.rotateLeft(hash, 23) ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    private void resetGrids() {
+        doorGrid.reset(layoutWidth, layoutHeight);
+        monsterGrid.reset(layoutWidth, layoutHeight);
+        projectileGrid.reset(layoutWidth, layoutHeight);
+    }
+
+    private void centerPlayers() {
+        for (int p = 0; p < players.size(); p++) {
+            placeBeside(players.get(p), p, width / 2.0, height / 2.0);
+        }
+    }
+
+    /** Centres the {@code index}-th player on {@code (cx, cy)}, shifted alternately left and right of the first. */
+    private static void placeBeside(Player player, int index, double cx, double cy) {
+        double shift = (index + 1) / 2 * (player.size + PLAYER_SPACING) * (index % 2 == 0 ? 1 : -1);
+        player.x = cx + shift - player.size / 2.0;
+        player.y = cy - player.size / 2.0;
+        player.snapPrevious();
+    }
+
+    /** Runs every fixed tick that {@code frameSeconds} of wall-clock time makes due and returns how many ran. */
+    int update(double frameSeconds, Set<Input> inputs) {
+        int ticks = timestep.advance(frameSeconds);
+        for (int i = 0; i < ticks; i++) {
+            tick(inputs);
+        }
+        return ticks;
+    }
+
+    /**
+     * Like {@link #update(double, Set)}, but each tick holds what {@code inputs} held during its own slice of the
+     * frame that ended at {@code nowNanos}, taps included.
+     */
+    int update(double frameSeconds, InputQueue inputs, long nowNanos) {
+        int ticks = timestep.advance(frameSeconds);
+        for (int i = 0; i < ticks; i++) {
+            tick(InputMask.toSet(inputs.takeUntil(timestep.dueAtNanos(i, ticks, nowNanos))));
+        }
+        return ticks;
+    }
+
+    double secondsUntilNextTick() {
+        return timestep.secondsUntilNextTick();
+    }
+
+    /** Runs one tick with the inputs every player currently holds. */
+    void tick() {
+        tick(player.held);
+    }
+
+    /** Runs one tick; {@code inputs} become the first player's held inputs, the others keep their own. */
+    void tick(Set<Input> inputs) {
+        StageTable reloaded = pendingStages.getAndSet(null);
+        if (reloaded != null) {
+            // Which tick picks up a reload depends on thread timing, so replays have to be told.
+            if (recorder != null) {
+                recorder.recordStageTable(reloaded);
+            }
+            setStageTable(reloaded);
+            clearProjectiles();
+            spawnDoors();
+        }
+        if (resizeSettlesAt >= 0 && currentTime >= resizeSettlesAt) {
+            relayout();
+        }
+        if (recorder != null) {
+            recorder.recordTick(inputs);
+        }
+        double dt = timestep.getTickSeconds();
+        currentTime += dt;
+        for (int p = 0; p < players.size(); p++) {
+            players.get(p).snapPrevious();
+        }
+        long t = profiler.start();
+        updatePlayerMovement(dt, inputs);
+        t = profiler.lap(TickProfiler.Phase.PLAYER, t);
+        markDormant();
+        updateMonsters(dt);
+        t = profiler.lap(TickProfiler.Phase.MONSTERS, t);
+        updateProjectiles(dt);
+        t = profiler.lap(TickProfiler.Phase.PROJECTILES, t);
+        handleDoorInteractions();
+        t = profiler.lap(TickProfiler.Phase.DOORS, t);
+        handleRespawn();
+        t = profiler.lap(TickProfiler.Phase.RESPAWN, t);
+        profiler.entityCounts(monsters.size(), projectiles.size(), doors.size());
+        profiler.endTick(t);
+    }
+
+    void updatePlayerMovement(double dt, Set<Input> inputs) {
+        player.held = inputs;
+        for (int p = 0; p < players.size(); p++) {
+            movePlayer(players.get(p), dt);
+        }
+    }
+
+    private void movePlayer(Player player, double dt) {
+        boolean canMove = !dead && currentTime >= player.stunnedUntil;
+        PlayerMotion.step(player, player.held, canMove, dt, width, height, dungeon ? map : null);
+    }
+
+    /**
+     * On dungeon stages, marks the monsters and projectiles more than {@link TileMap#ACTIVE_RADIUS} chunks from every
+     * player dormant: no system updates them and frames leave them out until a player comes near again, so a big
+     * map's population costs little more than the rooms around the players. Open stages keep everything active.
+     */
+    private void markDormant() {
+        if (!dungeon) {
+            return;
+        }
+        Arrays.fill(monsters.dormant, 0, monsters.size(), true);
+        Arrays.fill(projectiles.dormant, 0, projectiles.size(), true);
+        int dormantProjectiles = projectiles.size();
+        for (Player each : players) {
+            // Chunk edges are exact in doubles, so the box holds exactly the points within ACTIVE_RADIUS chunks.
+            double minX = TileMap.chunkEdge(TileMap.chunkAt(each.centerX()) - TileMap.ACTIVE_RADIUS);
+            double minY = TileMap.chunkEdge(TileMap.chunkAt(each.centerY()) - TileMap.ACTIVE_RADIUS);
+            double maxX = TileMap.chunkEdge(TileMap.chunkAt(each.centerX()) + TileMap.ACTIVE_RADIUS + 1);
+            double maxY = TileMap.chunkEdge(TileMap.chunkAt(each.centerY()) + TileMap.ACTIVE_RADIUS + 1);
+            GameMath.clearInsideBox(monsters.x, monsters.y, monsters.dormant, monsters.size(), minX, minY, maxX, maxY);
+            dormantProjectiles = GameMath.clearInsideBox(projectiles.x, projectiles.y, projectiles.dormant,
+                    projectiles.size(), minX, minY, maxX, maxY);
+        }
+        projectiles.dormantCount = dormantProjectiles;
+    }
+
+    void updateMonsters(double dt) {
+        monsterRunner.run(this, monsters, currentTime, dt);
+        for (int i = 0; i < monsters.size(); i++) {
+            if (!monsters.dormant[i]) {
+                monsterGrid.move(i, monsters.x[i], monsters.y[i]);
+            }
+        }
+        if (!dead && !queryAroundPlayers(monsterGrid, MonsterKind.RADIUS, missesMonster)) {
+            triggerDeath();
+        }
+    }
+
+    void updateProjectiles(double dt) {
+        projectiles.update(dt);
+        for (int i = 0; i < projectiles.size(); i++) {
+            if (!projectiles.dormant[i]) {
+                projectileGrid.move(i, projectiles.x[i], projectiles.y[i]);
+            }
+        }
+        if (!dead && !queryAroundPlayers(projectileGrid, ProjectilePool.RADIUS, missesProjectile)) {
+            triggerDeath();
+        }
+        for (int i = projectiles.size() - 1; i >= 0; i--) {
+            if (projectiles.outOfBounds(i, width, height)
+                    || dungeon && map.isWallAt(projectiles.x[i], projectiles.y[i])) {
+                removeProjectileAt(i);
+            }
+        }
+    }
+
+    private boolean missesMonster(int id) {
+        return !monsters.collidesWithPlayer(id, checkedPlayer);
+    }
+
+    private boolean missesProjectile(int id) {
+        return !projectiles.hitsPlayer(id, checkedPlayer);
+    }
+
+    /**
+     * Visits the grid around each player in turn, with {@link #checkedPlayer} set to that player, and returns
+     * {@code false} as soon as a visitor does.
+     */
+    private boolean queryAroundPlayers(SpatialGrid grid, double entityRadius, IntPredicate visitor) {
+        for (int p = 0; p < players.size(); p++) {
+            checkedPlayer = players.get(p);
+            double reach = entityRadius + checkedPlayer.size / 2.0;
+            double px = checkedPlayer.centerX();
+            double py = checkedPlayer.centerY();
+            if (!grid.query(px - reach, py - reach, px + reach, py + reach, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void handleDoorInteractions() {
+        if (dead) {
+            return;
+        }
+
+        // The lowest index wins when players overlap several doors, matching list order.
+        touchedDoor = -1;
+        queryAroundPlayers(doorGrid, doorSize / 2.0, recordTouchedDoor);
+        if (touchedDoor < 0) {
+            return;
+        }
+        DoorType type = doors.get(touchedDoor).getType();
+        switch (type) {
+            case PASS -> {
+                lastDoorTaken = type;
+                advanceStage();
+            }
+            case BACK -> {
+                lastDoorTaken = type;
+                regressStage();
+            }
+            case NORMAL -> {
+                // no-op
+            }
+        }
+    }
+
+    private boolean recordTouchedDoor(int id) {
+        if (intersects(checkedPlayer, doors.get(id)) && (touchedDoor < 0 || id < touchedDoor)) {
+            touchedDoor = id;
+        }
+        return true;
+    }
+
+    void handleRespawn() {
+        if (!dead) {
+            return;
+        }
+        if (currentTime - deathStartedAt >= RESPAWN_DELAY) {
+            dead = false;
+            stage = 1;
+            clearProjectiles();
+            message = HudText.RESPAWNED;
+            messageUntil = currentTime + MESSAGE_DURATION;
+            centerPlayers();
+            spawnDoors();
+        }
+    }
+
+    private void triggerDeath() {
+        if (dead || playerInvulnerable) {
+            return;
+        }
+        dead = true;
+        deathStartedAt = currentTime;
+        clearProjectiles();
+        message = HudText.YOU_DIED;
+        messageUntil = currentTime + MESSAGE_DURATION;
+    }
+
+    private void advanceStage() {
+        if (stage < stages.stageCount()) {
+            stage++;
+            message = HudText.stageBanner(stage);
+            messageUntil = currentTime + MESSAGE_DURATION;
+            centerPlayers();
+            spawnDoors();
+        } else {
+            message = HudText.YOU_WIN;
+            messageUntil = currentTime + MESSAGE_DURATION;
+            stage = 1;
+            clearProjectiles();
+            centerPlayers();
+            spawnDoors();
+        }
+    }
+
+    private void regressStage() {
+        if (stage > 1) {
+            stage--;
+            message = HudText.stageBanner(stage);
+            messageUntil = currentTime + MESSAGE_DURATION;
+        } else {
+            message = HudText.stageBanner(1);
+            messageUntil = currentTime + MESSAGE_DURATION;
+        }
+        centerPlayers();
+        clearProjectiles();
+        spawnDoors();
+    }
+
+    /**
+     * Lays out the current stage: the map on dungeon stages (with the player in the start room), the doors and
+     * the monsters.
+     */
+    void spawnDoors() {
+        layoutVersion++;
+        dungeon = stages.dungeonColumns(stage) > 0;
+        if (dungeon) {
+            map.reset(random.nextLong(), stages.dungeonColumns(stage), stages.dungeonRows(stage));
+            width = map.pixelWidth();
+            height = map.pixelHeight();
+        } else {
+            width = viewWidth;
+            height = viewHeight;
+        }
+        if (width != layoutWidth || height != layoutHeight) {
+            layoutWidth = width;
+            layoutHeight = height;
+            resetGrids();
+        }
+        doors.clear();
+        doorGrid.clear();
+        clearMonsters();
+        clearProjectiles();
+        doorSize = stages.doorSize();
+        int doorCount = doorCountOverride >= 0 ? doorCountOverride : stages.doorCount(stage);
+
+        if (dungeon) {
+            for (int p = 0; p < players.size(); p++) {
+                placeInStartRoom(players.get(p), p);
+            }
+            spawnDungeonDoors(doorCount);
+        } else {
+            double half = doorSize / 2.0;
+            int placed = doorPlacer.place(half, half, width - half, height - half, doorSize + 10, doorCount, random);
+            for (int i = 0; i < placed; i++) {
+                addDoor(doorPlacer.x(i) - half, doorPlacer.y(i) - half);
+            }
+        }
+
+        spawnMonsters();
+    }
+
+    private void addDoor(double x, double y) {
+        DoorType type;
+        if (doors.isEmpty()) {
+            type = DoorType.PASS;
+        } else if (doors.size() == 1) {
+            type = DoorType.BACK;
+        } else {
+            type = DoorType.NORMAL;
+        }
+        doors.add(new Door(x, y, doorSize, type));
+        doorGrid.insert(doors.size() - 1, x + doorSize / 2.0, y + doorSize / 2.0);
+    }
+
+    /**
+     * Puts each door somewhere inside a different room. Rooms are picked by sampling the chunk grid with a
+     * spacing of one chunk diagonal, which keeps every sample in its own chunk; the start room gets none.
+     */
+    private void spawnDungeonDoors(int doorCount) {
+        int startX = map.chunkColumns() / 2;
+        int startY = map.chunkRows() / 2;
+        double edge = Math.nextDown(1.0);
+        int sampled = doorPlacer.place(0, 0, map.chunkColumns() - edge, map.chunkRows() - edge, Math.sqrt(2),
+                doorCount + 1, random);
+        for (int i = 0; i < sampled && doors.size() < doorCount; i++) {
+            int chunkX = (int) doorPlacer.x(i);
+            int chunkY = (int) doorPlacer.y(i);
+            if (chunkX != startX || chunkY != startY) {
+                addDoorInRoom(chunkX, chunkY);
+            }
+        }
+        if (doors.isEmpty()) {
+            // Only on tiny maps, where every sample can land in the start room; the stage still needs an exit.
+            addDoorInRoom(startX + 1, startY);
+        }
+    }
+
+    private void addDoorInRoom(int chunkX, int chunkY) {
+        double roomWidth = map.roomWidth(chunkX, chunkY);
+        double roomHeight = map.roomHeight(chunkX, chunkY);
+        double left = map.roomCenterX(chunkX, chunkY) - roomWidth / 2;
+        double top = map.roomCenterY(chunkX, chunkY) - roomHeight / 2;
+        addDoor(left + random.nextDouble() * (roomWidth - doorSize),
+                top + random.nextDouble() * (roomHeight - doorSize));
+    }
+
+    private void placeInStartRoom(Player player, int index) {
+        int startX = map.chunkColumns() / 2;
+        int startY = map.chunkRows() / 2;
+        placeBeside(player, index, map.roomCenterX(startX, startY), map.roomCenterY(startX, startY));
+    }
+
+    private void spawnMonsters() {
+        if (dungeon) {
+            spawnDungeonMonsters();
+            return;
+        }
+        double[][] corners = {
+                {50, 50},
+                {width - 50, 50},
+                {50, height - 50},
+                {width - 50, height - 50}
+        };
+        MonsterKind kind = stages.monsterKind(stage);
+        for (int i = stages.monsterCount(stage); i > 0; i--) {
+            double[] corner = corners[random.nextInt(corners.length)];
+            addMonster(kind, corner[0], corner[1]);
+        }
+    }
+
+    /**
+     * Spawns monsters in the centres of rooms up to two chunks from the start room, never in the start room
+     * itself. Maps are at least three chunks across, so clamping an offset to the map never lands on it.
+     */
+    private void spawnDungeonMonsters() {
+        int startX = map.chunkColumns() / 2;
+        int startY = map.chunkRows() / 2;
+        MonsterKind kind = stages.monsterKind(stage);
+        for (int i = stages.monsterCount(stage); i > 0; i--) {
+            int cell = random.nextInt(24);
+            cell += cell >= 12 ? 1 : 0;
+            int chunkX = Math.max(0, Math.min(map.chunkColumns() - 1, startX + cell % 5 - 2));
+            int chunkY = Math.max(0, Math.min(map.chunkRows() - 1, startY + cell / 5 - 2));
+            addMonster(kind, map.roomCenterX(chunkX, chunkY), map.roomCenterY(chunkX, chunkY));
+        }
+    }
+
+    private static boolean intersects(Player player, Door door) {
+        return GameMath.rectsOverlap(player.x, player.y, player.size, player.size,
+                door.getX(), door.getY(), door.getSize(), door.getSize());
+    }
+
+    public enum Input {
+        UP, DOWN, LEFT, RIGHT
+    }
+}
\ No newline at end of file
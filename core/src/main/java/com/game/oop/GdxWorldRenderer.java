@@ -0,0 +1,245 @@
+package com.game.oop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws a {@link RenderFrame} with libGDX. Entities are white sprites from the packed entity atlas tinted per
+ * type, so they all go through one texture in a single sprite batch. Skill rings follow as one line batch and
+ * the HUD text last. The camera is expected to be y-down; it is moved to the frame's view for the world and back
+ * to the screen origin for the HUD. The sprites are symmetric, so the flip does not show.
+ */
+final class GdxWorldRenderer implements FrameRenderer, Disposable {
+    private static final int MAX_SHAPE_VERTICES = 20000;
+    private static final int MAX_SPRITES = 8191;
+    private static final int RING_SEGMENTS = 48;
+
+    private static final Color BACKGROUND = new Color(30 / 255f, 30 / 255f, 35 / 255f, 1f);
+    private static final Color WALL = new Color(12 / 255f, 12 / 255f, 16 / 255f, 1f);
+    private static final Color PLAYER = new Color(0xF5F5F5FF);
+    private static final Color PLAYER_STUNNED = new Color(220 / 255f, 220 / 255f, 1f, 0.7f);
+    private static final Color OTHER_PLAYER = new Color(0xF5D76EFF);
+    private static final Color[] DOOR_COLORS = {new Color(0x32CD32FF), new Color(0xFA8072FF), new Color(0x696969FF)};
+    private static final Color PROJECTILE = new Color(1f, 80 / 255f, 80 / 255f, 0.95f);
+    private static final Color TELEGRAPH = new Color(190 / 255f, 0f, 1f, 0.7f);
+    private static final Color PULSE = new Color(Color.CYAN);
+
+    private final OrthographicCamera camera;
+    private final ShapeRenderer shapes = new ShapeRenderer(MAX_SHAPE_VERTICES);
+    private final SpriteBatch batch = new SpriteBatch(MAX_SPRITES);
+    private final TextureRegion playerSprite;
+    private final TextureRegion doorSprite;
+    private final TextureRegion monsterSprite;
+    private final TextureRegion monsterOutlineSprite;
+    private final TextureRegion projectileSprite;
+    private final BitmapFont font = new BitmapFont(true);
+    /** One glyph cache per HUD row plus the overlay line; a row is laid out again only when its text changes. */
+    private final BitmapFontCache[] hudRows = new BitmapFontCache[RenderFrame.HUD_ROWS + 1];
+    private final String[] hudText = new String[hudRows.length];
+    private String overlay;
+    private float overlayRight = -1;
+    private final Color[] bodyColors;
+    private final Color[] shadowColors;
+
+    GdxWorldRenderer(OrthographicCamera camera, TextureAtlas entities) {
+        this.camera = camera;
+        playerSprite = region(entities, "player");
+        doorSprite = region(entities, "door");
+        monsterSprite = region(entities, "monster");
+        monsterOutlineSprite = region(entities, "monster-outline");
+        projectileSprite = region(entities, "projectile");
+        font.getData().setScale(1.2f);
+        font.setColor(Color.WHITE);
+        for (int row = 0; row < hudRows.length; row++) {
+            hudRows[row] = font.newFontCache();
+        }
+        MonsterKind[] kinds = MonsterKind.values();
+        bodyColors = new Color[kinds.length];
+        shadowColors = new Color[kinds.length];
+        for (MonsterKind kind : kinds) {
+            bodyColors[kind.ordinal()] = new Color(kind.bodyColor);
+            shadowColors[kind.ordinal()] = new Color(kind.shadowColor);
+        }
+    }
+
+    @Override
+    public void render(RenderFrame frame) {
+        lookAt((float) frame.viewX(), (float) frame.viewY());
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(BACKGROUND);
+        shapes.rect(0, 0, (float) frame.worldWidth, (float) frame.worldHeight);
+        drawWalls(frame);
+        shapes.end();
+
+        batch.begin();
+        drawDoors(frame);
+        for (int i = 0; i < frame.otherCount; i++) {
+            batch.setColor(frame.otherStunned[i] ? PLAYER_STUNNED : OTHER_PLAYER);
+            batch.draw(playerSprite, (float) frame.otherDrawX(i), (float) frame.otherDrawY(i),
+                    (float) frame.playerSize, (float) frame.playerSize);
+        }
+        batch.setColor(frame.playerStunned ? PLAYER_STUNNED : PLAYER);
+        batch.draw(playerSprite, (float) frame.playerDrawX(), (float) frame.playerDrawY(), (float) frame.playerSize,
+                (float) frame.playerSize);
+        drawMonsters(frame);
+        drawProjectiles(frame);
+        batch.setColor(Color.WHITE);
+        batch.end();
+
+        Gdx.gl.glLineWidth(2f);
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+        drawRings(frame);
+        shapes.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+
+        lookAt(0, 0);
+        batch.begin();
+        drawUi(frame);
+        batch.end();
+    }
+
+    /** Points the camera so {@code (left, top)} in world coordinates is the screen's top-left corner. */
+    private void lookAt(float left, float top) {
+        camera.position.set(left + camera.viewportWidth / 2, top + camera.viewportHeight / 2, 0);
+        camera.update();
+        shapes.setProjectionMatrix(camera.combined);
+        batch.setProjectionMatrix(camera.combined);
+    }
+
+    /** One rectangle per horizontal run of wall tiles. */
+    private void drawWalls(RenderFrame frame) {
+        float size = (float) frame.tileSize;
+        shapes.setColor(WALL);
+        for (int r = 0; r < frame.tileRows; r++) {
+            int base = r * frame.tileColumns;
+            float y = (frame.tileRow + r) * size;
+            int c = 0;
+            while (c < frame.tileColumns) {
+                if (frame.tiles[base + c] != TileMap.WALL) {
+                    c++;
+                    continue;
+                }
+                int start = c;
+                while (c < frame.tileColumns && frame.tiles[base + c] == TileMap.WALL) {
+                    c++;
+                }
+                shapes.rect((frame.tileColumn + start) * size, y, (c - start) * size, size);
+            }
+        }
+    }
+
+    private static TextureRegion region(TextureAtlas atlas, String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            throw new IllegalStateException("Entity atlas has no sprite named " + name);
+        }
+        return region;
+    }
+
+    private void drawDoors(RenderFrame frame) {
+        for (int i = 0; i < frame.doorCount; i++) {
+            batch.setColor(DOOR_COLORS[frame.doorType[i]]);
+            batch.draw(doorSprite, (float) frame.doorX[i], (float) frame.doorY[i], (float) frame.doorSize[i],
+                    (float) frame.doorSize[i]);
+        }
+    }
+
+    private void drawMonsters(RenderFrame frame) {
+        for (int i = 0; i < frame.monsterCount; i++) {
+            float radius = (float) frame.monsterRadius[i];
+            float x = (float) frame.monsterDrawX(i) - radius;
+            float y = (float) frame.monsterDrawY(i) - radius;
+            batch.setColor(bodyColors[frame.monsterKind[i]]);
+            batch.draw(monsterSprite, x, y, radius * 2, radius * 2);
+            batch.setColor(shadowColors[frame.monsterKind[i]]);
+            batch.draw(monsterOutlineSprite, x, y, radius * 2, radius * 2);
+        }
+    }
+
+    private void drawProjectiles(RenderFrame frame) {
+        batch.setColor(PROJECTILE);
+        for (int i = 0; i < frame.projectileCount; i++) {
+            float radius = (float) frame.projectileRadius[i];
+            batch.draw(projectileSprite, (float) frame.projectileDrawX(i) - radius,
+                    (float) frame.projectileDrawY(i) - radius, radius * 2, radius * 2);
+        }
+    }
+
+    private void drawRings(RenderFrame frame) {
+        for (int i = 0; i < frame.ringCount; i++) {
+            float x = (float) frame.ringDrawX(i);
+            float y = (float) frame.ringDrawY(i);
+            float radius = (float) frame.ringRadius[i];
+            if (frame.ringStyle[i] == RenderFrame.RING_TELEGRAPH) {
+                shapes.setColor(TELEGRAPH);
+                dashedRing(x, y, radius);
+            } else {
+                shapes.setColor(PULSE);
+                shapes.circle(x, y, radius, RING_SEGMENTS);
+            }
+        }
+    }
+
+    /** ShapeRenderer has no dash pattern, so the ring is drawn as every other chord of a segmented circle. */
+    private void dashedRing(float cx, float cy, float radius) {
+        float step = MathUtils.PI2 / RING_SEGMENTS;
+        for (int s = 0; s < RING_SEGMENTS; s += 2) {
+            float a0 = s * step;
+            float a1 = a0 + step;
+            shapes.line(cx + radius * MathUtils.cos(a0), cy + radius * MathUtils.sin(a0),
+                    cx + radius * MathUtils.cos(a1), cy + radius * MathUtils.sin(a1));
+        }
+    }
+
+    /** Extra right-aligned HUD line such as frame statistics; {@code null} hides it. */
+    void setOverlay(String overlay) {
+        this.overlay = overlay;
+    }
+
+    private void drawUi(RenderFrame frame) {
+        for (int row = 0; row < RenderFrame.HUD_ROWS; row++) {
+            drawRow(row, frame.hud[row], 10, 6 + 20 * row, false);
+        }
+        float right = (float) frame.width - 10;
+        if (right != overlayRight) {
+            overlayRight = right;
+            hudText[RenderFrame.HUD_ROWS] = null;
+        }
+        drawRow(RenderFrame.HUD_ROWS, overlay, right, 6, true);
+    }
+
+    private void drawRow(int row, String text, float x, float y, boolean alignRight) {
+        if (text == null) {
+            hudText[row] = null;
+            return;
+        }
+        BitmapFontCache cache = hudRows[row];
+        if (!text.equals(hudText[row])) {
+            hudText[row] = text;
+            GlyphLayout layout = cache.setText(text, 0, 0);
+            cache.setPosition(alignRight ? x - layout.width : x, y);
+        }
+        cache.draw(batch);
+    }
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+        batch.dispose();
+        font.dispose();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.game.oop;
+
+/**
+ * Every string the simulation puts on the HUD, built once. The world only hands out these instances, so the
+ * tick loop never concatenates text and renderers can cache rendered labels keyed by the string itself.
+ */
+final class HudText {
+    static final String STUNNED = "Stunned";
+    static final String YOU_DIED = "You Died";
+    static final String RESPAWNED = "Respawned";
+    static final String YOU_WIN = "You Win!";
+    static final String SAVED = "Game saved";
+    static final String LOADED = "Game loaded";
+    static final String CONNECTING = "Connecting...";
+    static final String DISCONNECTED = "Disconnected from server";
+
+    private static final int CACHED_STAGES = 64;
+    private static final String[] STAGE_COUNTERS = new String[CACHED_STAGES];
+    private static final String[] STAGE_BANNERS = new String[CACHED_STAGES];
+
+    static {
+        for (int stage = 0; stage < CACHED_STAGES; stage++) {
+            STAGE_COUNTERS[stage] = "Stage: " + stage;
+            STAGE_BANNERS[stage] = "Stage " + stage;
+        }
+    }
+
+    private HudText() {
+    }
+
+    /** The persistent "Stage: N" counter row. */
+    static String stageCounter(int stage) {
+        return stage >= 0 && stage < CACHED_STAGES ? STAGE_COUNTERS[stage] : "Stage: " + stage;
+    }
+
+    /** The transient "Stage N" banner shown after moving between stages. */
+    static String stageBanner(int stage) {
+        return stage >= 0 && stage < CACHED_STAGES ? STAGE_BANNERS[stage] : "Stage " + stage;
+    }
+}
@@ -0,0 +1,43 @@
+package com.game.oop;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Packs a set of held {@link GameWorld.Input}s into the low bits of an int, one bit per ordinal. */
+final class InputMask {
+    static final int COMBINATIONS = 1 << GameWorld.Input.values().length;
+
+    private static final Set<GameWorld.Input>[] SETS = buildSets();
+
+    private InputMask() {
+    }
+
+    static int of(Set<GameWorld.Input> inputs) {
+        int mask = 0;
+        for (GameWorld.Input input : inputs) {
+            mask |= 1 << input.ordinal();
+        }
+        return mask;
+    }
+
+    /** Shared, unmodifiable set for {@code mask}; never allocates. */
+    static Set<GameWorld.Input> toSet(int mask) {
+        return SETS[mask];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Set<GameWorld.Input>[] buildSets() {
+        Set<GameWorld.Input>[] sets = new Set[COMBINATIONS];
+        for (int mask = 0; mask < COMBINATIONS; mask++) {
+            EnumSet<GameWorld.Input> set = EnumSet.noneOf(GameWorld.Input.class);
+            for (GameWorld.Input input : GameWorld.Input.values()) {
+                if ((mask & (1 << input.ordinal())) != 0) {
+                    set.add(input);
+                }
+            }
+            sets[mask] = Collections.unmodifiableSet(set);
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,10 @@
+package com.game.oop;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/** Scripted stand-in for a player, used by headless tools. One instance drives one attempt. */
+interface InputPolicy {
+    /** Inputs to hold for the next tick of {@code world}. */
+    Set<GameWorld.Input> next(GameWorld world, SplittableRandom random);
+}
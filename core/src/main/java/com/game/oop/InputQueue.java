@@ -0,0 +1,137 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * Lock-free ring buffer of timestamped input changes between one input thread and the thread that ticks the world.
+ * The input side reports key presses and releases as they happen; each change is queued as the {@link InputMask}
+ * held from then on, stamped with its {@link System#nanoTime()}. The ticking side takes the changes up to each
+ * tick's due time, so a batch of ticks run in one frame sees every change in the tick it happened in rather than
+ * all at the frame's end, and a key pressed at any point of a tick counts as held for that whole tick: a tap
+ * shorter than a frame, or even a tick, still moves the player. Neither side ever waits for the other.
+ * <p>
+ * Should the ticking side stall long enough for the buffer to fill, further changes are dropped and counted, and
+ * the next take falls back to what the input side holds at that moment, so no key can get stuck.
+ */
+final class InputQueue {
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final long[] times;
+    private final int[] masks;
+    private final int indexMask;
+    /** Written by the input side only; the volatile write publishes the slot it just filled. */
+    private volatile long tail;
+    /** Written by the ticking side only; tells the input side which slots are free again. */
+    private volatile long head;
+    private volatile int latestMask;
+    private volatile long dropped;
+
+    private final int[] holds = new int[GameWorld.Input.values().length];
+    private int inputMask;
+
+    private long seenDropped;
+    private int held;
+
+    InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** {@code capacity} is rounded up to a power of two. */
+    InputQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Need a positive capacity, got " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.times = new long[size];
+        this.masks = new int[size];
+        this.indexMask = size - 1;
+    }
+
+    /**
+     * Records a key mapped to {@code input} going down at {@code nanos}. Keys are counted, so with two keys mapped to
+     * the same input it stays held until both are up; callers must not report auto-repeated presses. Input side
+     * only.
+     */
+    void press(GameWorld.Input input, long nanos) {
+        if (holds[input.ordinal()]++ == 0) {
+            push(inputMask | 1 << input.ordinal(), nanos);
+        }
+    }
+
+    /** Records a key mapped to {@code input} going up at {@code nanos}. Input side only. */
+    void release(GameWorld.Input input, long nanos) {
+        if (holds[input.ordinal()] > 0 && --holds[input.ordinal()] == 0) {
+            push(inputMask & ~(1 << input.ordinal()), nanos);
+        }
+    }
+
+    /** Lets go of every key at {@code nanos}, for when the window loses focus and key releases go elsewhere. */
+    void releaseAll(long nanos) {
+        Arrays.fill(holds, 0);
+        if (inputMask != 0) {
+            push(0, nanos);
+        }
+    }
+
+    /** Moves straight to holding {@code mask} at {@code nanos}, for input sides that are not keyboards. */
+    void hold(int mask, long nanos) {
+        for (GameWorld.Input input : GameWorld.Input.values()) {
+            holds[input.ordinal()] = (mask & 1 << input.ordinal()) != 0 ? 1 : 0;
+        }
+        if (mask != inputMask) {
+            push(mask, nanos);
+        }
+    }
+
+    private void push(int mask, long nanos) {
+        inputMask = mask;
+        latestMask = mask;
+        long t = tail;
+        if (t - head > indexMask) {
+            dropped++;
+            return;
+        }
+        int slot = (int) t & indexMask;
+        times[slot] = nanos;
+        masks[slot] = mask;
+        tail = t + 1;
+    }
+
+    /**
+     * Consumes the changes stamped at or before {@code nanos} and returns the mask for the tick ending then: what was
+     * held when the tick began plus everything pressed during it. Ticking side only.
+     */
+    int takeUntil(long nanos) {
+        int during = held;
+        long h = head;
+        long t = tail;
+        while (h < t) {
+            int slot = (int) h & indexMask;
+            if (times[slot] - nanos > 0) {
+                break;
+            }
+            held = masks[slot];
+            during |= held;
+            h++;
+        }
+        head = h;
+        long lost = dropped;
+        if (lost != seenDropped && h == t) {
+            // Changes went missing, but everything queued before them is applied now; catch up with the input side.
+            seenDropped = lost;
+            held = latestMask;
+            during |= held;
+        }
+        return during;
+    }
+
+    /** What the ticking side holds after its last take. */
+    int held() {
+        return held;
+    }
+
+    /** Changes dropped because the buffer was full. */
+    long dropped() {
+        return dropped;
+    }
+}
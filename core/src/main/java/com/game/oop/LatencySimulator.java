@@ -0,0 +1,173 @@
+package com.game.oop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Loopback relay that makes a local connection behave like a slow one. Every accepted connection is paired with
+ * one to the target, and each direction delays what it reads by a one-way latency plus uniform random jitter
+ * before writing it on. Bytes keep their order as on TCP, so a chunk held up by jitter also holds up the chunks
+ * behind it and they arrive in a burst. Each direction is a reader and a writer virtual thread joined by a queue.
+ *
+ * <pre>
+ * --listen N        port to accept clients on (default 7778)
+ * --target H:P      server to relay to (default localhost:7777)
+ * --latency MS      one-way delay (default 50)
+ * --jitter MS       maximum extra delay either side of the latency (default 10)
+ * </pre>
+ */
+final class LatencySimulator implements Closeable {
+    private static final int CHUNK = 8192;
+    /** Marks the end of a direction's stream. */
+    private static final Delayed END = new Delayed(0, new byte[0]);
+
+    private record Delayed(long dueNanos, byte[] bytes) {
+    }
+
+    private final ServerSocketChannel listener;
+    private final InetSocketAddress target;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final Thread acceptor;
+
+    private LatencySimulator(int port, InetSocketAddress target, double latencyMillis, double jitterMillis)
+            throws IOException {
+        this.target = target;
+        this.latencyNanos = (long) (latencyMillis * 1e6);
+        this.jitterNanos = (long) (jitterMillis * 1e6);
+        listener = ServerSocketChannel.open();
+        listener.bind(new InetSocketAddress("localhost", port));
+        acceptor = Thread.ofVirtual().name("latency-accept").unstarted(this::accept);
+    }
+
+    static LatencySimulator start(int port, InetSocketAddress target, double latencyMillis, double jitterMillis)
+            throws IOException {
+        LatencySimulator simulator = new LatencySimulator(port, target, latencyMillis, jitterMillis);
+        simulator.acceptor.start();
+        return simulator;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 7778;
+        InetSocketAddress target = new InetSocketAddress("localhost", NetProtocol.DEFAULT_PORT);
+        double latency = 50;
+        double jitter = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--listen" -> port = Integer.parseInt(value);
+                    case "--target" -> {
+                        int colon = value.lastIndexOf(':');
+                        target = new InetSocketAddress(value.substring(0, colon),
+                                Integer.parseInt(value.substring(colon + 1)));
+                    }
+                    case "--latency" -> latency = Double.parseDouble(value);
+                    case "--jitter" -> jitter = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            }
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        LatencySimulator simulator = start(port, target, latency, jitter);
+        System.err.printf("Relaying localhost:%d to %s with %.0f ms +- %.0f ms each way%n", simulator.port(), target,
+                latency, jitter);
+        simulator.acceptor.join();
+    }
+
+    int port() {
+        return listener.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            listener.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel client = listener.accept();
+                SocketChannel server;
+                try {
+                    server = SocketChannel.open(target);
+                } catch (IOException e) {
+                    closeQuietly(client);
+                    continue;
+                }
+                relay(client, server);
+                relay(server, client);
+            }
+        } catch (IOException e) {
+            // The listener was closed.
+        }
+    }
+
+    private void relay(SocketChannel from, SocketChannel to) {
+        BlockingQueue<Delayed> queue = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+            long lastDue = 0;
+            try {
+                while (from.read(buffer.clear()) >= 0) {
+                    long jitter = jitterNanos > 0
+                            ? ThreadLocalRandom.current().nextLong(-jitterNanos, jitterNanos + 1) : 0;
+                    // Never due before the chunk ahead of it: TCP does not reorder.
+                    lastDue = Math.max(lastDue, System.nanoTime() + Math.max(0, latencyNanos + jitter));
+                    byte[] bytes = new byte[buffer.flip().remaining()];
+                    buffer.get(bytes);
+                    queue.add(new Delayed(lastDue, bytes));
+                }
+            } catch (IOException e) {
+                // Treated like the end of the stream.
+            }
+            queue.add(END);
+        });
+        Thread.ofVirtual().start(() -> {
+            try {
+                Delayed chunk;
+                while ((chunk = queue.take()) != END) {
+                    long wait;
+                    while ((wait = chunk.dueNanos() - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    ByteBuffer bytes = ByteBuffer.wrap(chunk.bytes());
+                    while (bytes.hasRemaining()) {
+                        to.write(bytes);
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // Fall through and close both sides.
+            }
+            closeQuietly(from);
+            closeQuietly(to);
+        });
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.game.oop;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Disposable;
+
+/** Progress bar shown while {@link GameAssets} streams in; draws with shapes only, so it needs no assets itself. */
+final class LoadingScreen implements Disposable {
+    private static final Color BACKGROUND = new Color(30 / 255f, 30 / 255f, 35 / 255f, 1f);
+    private static final Color TRACK = new Color(0x3C3C46FF);
+    private static final Color FILL = new Color(0xF5F5F5FF);
+    private static final float BAR_WIDTH = 320;
+    private static final float BAR_HEIGHT = 12;
+
+    private final ShapeRenderer shapes = new ShapeRenderer();
+
+    void render(OrthographicCamera camera, float progress) {
+        float x = (camera.viewportWidth - BAR_WIDTH) / 2f;
+        float y = (camera.viewportHeight - BAR_HEIGHT) / 2f;
+        shapes.setProjectionMatrix(camera.combined);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(BACKGROUND);
+        shapes.rect(0, 0, camera.viewportWidth, camera.viewportHeight);
+        shapes.setColor(TRACK);
+        shapes.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapes.setColor(FILL);
+        shapes.rect(x, y, BAR_WIDTH * Math.max(0f, Math.min(1f, progress)), BAR_HEIGHT);
+        shapes.end();
+    }
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+    }
+}
@@ -0,0 +1,57 @@
+package com.game.oop;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Side effects produced by monster systems while they run over one stripe of slots. Systems never touch shared
+ * world state directly; instead each stripe fills its own buffer and {@link #applyTo} replays it on the
+ * simulation thread in stripe order, which keeps parallel ticks identical to sequential ones.
+ */
+final class MonsterEffects {
+    private static final int SHOT_FIELDS = 5;
+
+    private double[] shots = new double[SHOT_FIELDS * 16];
+    private int shotCount;
+    /** Latest stun end per player index. */
+    private double[] stunUntil = new double[1];
+    private int playerCount;
+
+    void clear(int playerCount) {
+        shotCount = 0;
+        this.playerCount = playerCount;
+        if (stunUntil.length < playerCount) {
+            stunUntil = new double[playerCount];
+        }
+        Arrays.fill(stunUntil, 0, playerCount, Double.NEGATIVE_INFINITY);
+    }
+
+    void spawnProjectile(double x, double y, double dirX, double dirY, double speed) {
+        int base = shotCount * SHOT_FIELDS;
+        if (base + SHOT_FIELDS > shots.length) {
+            shots = Arrays.copyOf(shots, shots.length * 2);
+        }
+        shots[base] = x;
+        shots[base + 1] = y;
+        shots[base + 2] = dirX;
+        shots[base + 3] = dirY;
+        shots[base + 4] = speed;
+        shotCount++;
+    }
+
+    void stunPlayerUntil(int player, double until) {
+        stunUntil[player] = Math.max(stunUntil[player], until);
+    }
+
+    void applyTo(GameWorld world) {
+        for (int s = 0; s < shotCount; s++) {
+            int base = s * SHOT_FIELDS;
+            world.spawnProjectile(shots[base], shots[base + 1], shots[base + 2], shots[base + 3], shots[base + 4]);
+        }
+        List<Player> players = world.getPlayers();
+        for (int p = 0; p < playerCount; p++) {
+            Player player = players.get(p);
+            player.stunnedUntil = Math.max(player.stunnedUntil, stunUntil[p]);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.game.oop;
+
+/**
+ * Component bundles for the monster types a stage can spawn. Each kind lists the components its entities get in
+ * {@link MonsterStore} plus the tuning those components read.
+ */
+enum MonsterKind {
+    STUN(MonsterStore.CHASE | MonsterStore.PULSE, 60, 2.5, -10, 0x00FFFFFF, 0x008B8BFF),
+    WARP(MonsterStore.CHASE | MonsterStore.WARP, 66, 5.0, -10, 0xBE00FFF2, 0xFF00FFFF),
+    SHOOTER(MonsterStore.CHASE | MonsterStore.FIRE, 54, 1.5, 0, 0xFF7800F2, 0xFF8C00FF);
+
+    static final double RADIUS = 18;
+    static final double SKILL_DELAY = 1.0;
+
+    final int components;
+    final double speed;
+    final double skillCooldown;
+    final double initialSkillTime;
+    /** Body fill color packed as 0xRRGGBBAA. */
+    final int bodyColor;
+    /** Outline color packed as 0xRRGGBBAA. */
+    final int shadowColor;
+
+    MonsterKind(int components, double speed, double skillCooldown, double initialSkillTime,
+                int bodyColor, int shadowColor) {
+        this.components = components;
+        this.speed = speed;
+        this.skillCooldown = skillCooldown;
+        this.initialSkillTime = initialSkillTime;
+        this.bodyColor = bodyColor;
+        this.shadowColor = shadowColor;
+    }
+}
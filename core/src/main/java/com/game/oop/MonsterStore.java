@@ -0,0 +1,197 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * Entity-component storage for monsters. Every monster is a slot in a set of parallel primitive arrays, and each
+ * component keeps a dense list of the slots that carry it, so a system walks exactly its own members with no
+ * type checks or virtual calls. Monsters are only ever removed all at once, which keeps slots stable for the
+ * lifetime of a stage. Every system skips {@link #dormant} monsters, so on large dungeon maps only the ones near a
+ * player cost anything.
+ */
+final class MonsterStore {
+    static final int CHASE = 1;
+    static final int PULSE = 1 << 1;
+    static final int WARP = 1 << 2;
+    static final int FIRE = 1 << 3;
+    private static final int COMPONENT_COUNT = 4;
+
+    static final byte IDLE = 0;
+    static final byte WINDING_UP = 1;
+    static final byte TELEGRAPHING = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final MonsterKind[] KINDS = MonsterKind.values();
+
+    byte[] kind = new byte[INITIAL_CAPACITY];
+    double[] x = new double[INITIAL_CAPACITY];
+    double[] y = new double[INITIAL_CAPACITY];
+    double[] prevX = new double[INITIAL_CAPACITY];
+    double[] prevY = new double[INITIAL_CAPACITY];
+    double[] speed = new double[INITIAL_CAPACITY];
+    double[] skillCooldown = new double[INITIAL_CAPACITY];
+    double[] radius = new double[INITIAL_CAPACITY];
+
+    // Skill cycle shared by the pulse, warp and fire components.
+    byte[] phase = new byte[INITIAL_CAPACITY];
+    double[] lastSkillTime = new double[INITIAL_CAPACITY];
+    double[] phaseStartedAt = new double[INITIAL_CAPACITY];
+    double[] targetX = new double[INITIAL_CAPACITY];
+    double[] targetY = new double[INITIAL_CAPACITY];
+    /** Set by skill systems when a monster spends the tick winding up or telegraphing instead of moving. */
+    boolean[] busy = new boolean[INITIAL_CAPACITY];
+    /** Per-monster random stream, so AI rolls do not depend on which worker updates the slot. */
+    long[] randomState = new long[INITIAL_CAPACITY];
+    /** Set by the world for monsters far from every player; they keep still and their skill cycles pause. */
+    boolean[] dormant = new boolean[INITIAL_CAPACITY];
+
+    private final int[][] members = new int[COMPONENT_COUNT][INITIAL_CAPACITY];
+    private final int[] memberCounts = new int[COMPONENT_COUNT];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    MonsterKind kindOf(int i) {
+        return KINDS[kind[i]];
+    }
+
+    int add(MonsterKind monsterKind, double startX, double startY, long seed) {
+        return add(monsterKind, startX, startY, monsterKind.speed, monsterKind.skillCooldown, seed);
+    }
+
+    int add(MonsterKind monsterKind, double startX, double startY, double moveSpeed, double cooldown, long seed) {
+        if (size == x.length) {
+            grow(size * 2);
+        }
+        int i = size++;
+        kind[i] = (byte) monsterKind.ordinal();
+        x[i] = startX;
+        y[i] = startY;
+        prevX[i] = startX;
+        prevY[i] = startY;
+        speed[i] = moveSpeed;
+        skillCooldown[i] = cooldown;
+        radius[i] = MonsterKind.RADIUS;
+        phase[i] = IDLE;
+        lastSkillTime[i] = monsterKind.initialSkillTime;
+        phaseStartedAt[i] = -10;
+        busy[i] = false;
+        randomState[i] = seed;
+        dormant[i] = false;
+        for (int c = 0; c < COMPONENT_COUNT; c++) {
+            if ((monsterKind.components & (1 << c)) != 0) {
+                int[] list = members[c];
+                if (memberCounts[c] == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                    members[c] = list;
+                }
+                list[memberCounts[c]++] = i;
+            }
+        }
+        return i;
+    }
+
+    void clear() {
+        size = 0;
+        Arrays.fill(memberCounts, 0);
+    }
+
+    /** Dense slot list for a single component flag; only the first {@link #memberCount} entries are valid. */
+    int[] members(int component) {
+        return members[Integer.numberOfTrailingZeros(component)];
+    }
+
+    int memberCount(int component) {
+        return memberCounts[Integer.numberOfTrailingZeros(component)];
+    }
+
+    /**
+     * Position in a component's member list of the first member whose slot is at least {@code slot}. Member
+     * lists are filled in slot order, so {@code [firstMember(c, from), firstMember(c, to))} covers exactly the
+     * members inside the slot range {@code [from, to)}.
+     */
+    int firstMember(int component, int slot) {
+        int c = Integer.numberOfTrailingZeros(component);
+        int[] list = members[c];
+        int low = 0;
+        int high = memberCounts[c];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list[mid] < slot) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Next uniform double in {@code [0, 1)} from slot {@code i}'s SplitMix64 stream. */
+    double nextRandom(int i) {
+        long z = (randomState[i] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /** Snapshots positions for interpolation and clears the busy flags; run once before the systems. */
+    void beginTick() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+        Arrays.fill(busy, 0, size, false);
+    }
+
+    void teleport(int i, double toX, double toY) {
+        x[i] = toX;
+        y[i] = toY;
+        prevX[i] = toX;
+        prevY[i] = toY;
+    }
+
+    /**
+     * Advances the cooldown, then wind-up cycle shared by every skill component. Returns {@code true} on the
+     * tick the wind-up finishes, which is when the caller should trigger its skill.
+     */
+    boolean stepSkillCycle(int i, double now, double cooldown) {
+        if (phase[i] == WINDING_UP) {
+            busy[i] = true;
+            if (now - phaseStartedAt[i] >= MonsterKind.SKILL_DELAY) {
+                phase[i] = IDLE;
+                return true;
+            }
+            return false;
+        }
+        if (now - lastSkillTime[i] >= cooldown) {
+            phase[i] = WINDING_UP;
+            phaseStartedAt[i] = now;
+            busy[i] = true;
+        }
+        return false;
+    }
+
+    boolean collidesWithPlayer(int i, Player player) {
+        return GameMath.circlesOverlap(x[i], y[i], radius[i], player.centerX(), player.centerY(), player.size / 2.0);
+    }
+
+    private void grow(int capacity) {
+        kind = Arrays.copyOf(kind, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        skillCooldown = Arrays.copyOf(skillCooldown, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        lastSkillTime = Arrays.copyOf(lastSkillTime, capacity);
+        phaseStartedAt = Arrays.copyOf(phaseStartedAt, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        busy = Arrays.copyOf(busy, capacity);
+        randomState = Arrays.copyOf(randomState, capacity);
+        dormant = Arrays.copyOf(dormant, capacity);
+    }
+}
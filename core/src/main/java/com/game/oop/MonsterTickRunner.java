@@ -0,0 +1,126 @@
+package com.game.oop;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the monster systems for one tick, either inline or split into contiguous slot stripes on a fork/join
+ * pool. Systems only write the slots of their own stripe and buffer every shared side effect in that stripe's
+ * {@link MonsterEffects}; the buffers are merged in stripe order afterwards, so the outcome does not depend on
+ * how many workers ran or in which order they finished.
+ */
+final class MonsterTickRunner {
+    private static final int MIN_SLOTS_PER_STRIPE = 2048;
+
+    private final ForkJoinPool pool;
+    private final Stripe[] stripes;
+    private final Root root = new Root();
+
+    private GameWorld world;
+    private MonsterStore monsters;
+    /** Centres of the players, the chase targets. */
+    private double[] targetX = new double[1];
+    private double[] targetY = new double[1];
+    private int targetCount;
+    private double now;
+    private double dt;
+
+    /** Creates a runner that updates every monster inline on the calling thread. */
+    MonsterTickRunner() {
+        this(null, 1);
+    }
+
+    MonsterTickRunner(ForkJoinPool pool, int maxStripes) {
+        this.pool = pool;
+        this.stripes = new Stripe[Math.max(1, maxStripes)];
+        for (int s = 0; s < stripes.length; s++) {
+            stripes[s] = new Stripe();
+        }
+    }
+
+    static MonsterTickRunner parallel() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return new MonsterTickRunner(pool, pool.getParallelism() + 1);
+    }
+
+    void run(GameWorld world, MonsterStore monsters, double now, double dt) {
+        this.world = world;
+        this.monsters = monsters;
+        List<Player> players = world.getPlayers();
+        targetCount = players.size();
+        if (targetX.length < targetCount) {
+            targetX = new double[targetCount];
+            targetY = new double[targetCount];
+        }
+        for (int p = 0; p < targetCount; p++) {
+            targetX[p] = players.get(p).centerX();
+            targetY[p] = players.get(p).centerY();
+        }
+        this.now = now;
+        this.dt = dt;
+
+        int size = monsters.size();
+        int count = pool == null ? 1 : Math.max(1, Math.min(stripes.length, size / MIN_SLOTS_PER_STRIPE));
+        for (int s = 0; s < count; s++) {
+            stripes[s].from = (int) ((long) size * s / count);
+            stripes[s].to = (int) ((long) size * (s + 1) / count);
+        }
+
+        monsters.beginTick();
+        if (count == 1) {
+            runStripe(stripes[0]);
+        } else {
+            root.count = count;
+            root.reinitialize();
+            pool.invoke(root);
+        }
+        for (int s = 0; s < count; s++) {
+            stripes[s].effects.applyTo(world);
+        }
+        this.world = null;
+        this.monsters = null;
+    }
+
+    private void runStripe(Stripe stripe) {
+        MonsterEffects effects = stripe.effects;
+        effects.clear(targetCount);
+        int from = stripe.from;
+        int to = stripe.to;
+        PulseSystem.updateCycles(monsters, from, to, now);
+        WarpSystem.run(world, monsters, from, to, now);
+        FireSystem.run(world, monsters, from, to, now, effects);
+        ChaseSystem.run(monsters, from, to, targetX, targetY, targetCount, dt);
+        PulseSystem.applyStuns(monsters, from, to, world.getPlayers(), now, effects);
+    }
+
+    // Fork/join tasks are never serialized.
+    @SuppressWarnings("serial")
+    private final class Stripe extends RecursiveAction {
+        final MonsterEffects effects = new MonsterEffects();
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            runStripe(this);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class Root extends RecursiveAction {
+        int count;
+
+        @Override
+        protected void compute() {
+            for (int s = 1; s < count; s++) {
+                stripes[s].reinitialize();
+                stripes[s].fork();
+            }
+            stripes[0].compute();
+            for (int s = count - 1; s >= 1; s--) {
+                stripes[s].join();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.game.oop;
+
+/**
+ * Immutable per-kind monster tuning applied when a monster spawns. {@link #DEFAULTS} mirrors the values declared
+ * on {@link MonsterKind}; balancing tools derive variants with the {@code with...} methods.
+ */
+final class MonsterTuning {
+    static final MonsterTuning DEFAULTS = defaults();
+
+    private final double[] speed;
+    private final double[] skillCooldown;
+
+    private MonsterTuning(double[] speed, double[] skillCooldown) {
+        this.speed = speed;
+        this.skillCooldown = skillCooldown;
+    }
+
+    private static MonsterTuning defaults() {
+        MonsterKind[] kinds = MonsterKind.values();
+        double[] speed = new double[kinds.length];
+        double[] skillCooldown = new double[kinds.length];
+        for (MonsterKind kind : kinds) {
+            speed[kind.ordinal()] = kind.speed;
+            skillCooldown[kind.ordinal()] = kind.skillCooldown;
+        }
+        return new MonsterTuning(speed, skillCooldown);
+    }
+
+    double speed(MonsterKind kind) {
+        return speed[kind.ordinal()];
+    }
+
+    double skillCooldown(MonsterKind kind) {
+        return skillCooldown[kind.ordinal()];
+    }
+
+    MonsterTuning withSpeed(MonsterKind kind, double value) {
+        double[] copy = speed.clone();
+        copy[kind.ordinal()] = value;
+        return new MonsterTuning(copy, skillCooldown);
+    }
+
+    MonsterTuning withSkillCooldown(MonsterKind kind, double value) {
+        double[] copy = skillCooldown.clone();
+        copy[kind.ordinal()] = value;
+        return new MonsterTuning(speed, copy);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (MonsterKind kind : MonsterKind.values()) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(kind.name().toLowerCase()).append(String.format("=%.2fs", skillCooldown(kind)));
+        }
+        return text.toString();
+    }
+}
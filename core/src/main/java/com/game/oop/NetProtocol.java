@@ -0,0 +1,127 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by {@link GameServer} and {@link BotClient}. Every message is a frame: a big-endian int
+ * length, then that many bytes starting with a tag byte.
+ * <pre>
+ * client to server
+ *   HELLO     varint {@link #VERSION}, varint name length, UTF-8 room name    join (or open) a room
+ *   INPUT     varint input sequence, byte input mask    the keys held for one client tick; the server applies
+ *                                                       each in order, one per tick
+ *   ACK       varint snapshot sequence                  newest snapshot received; the base for later deltas
+ * server to client
+ *   WELCOME   varint player id, double tick rate, varint ticks per snapshot
+ *   SNAPSHOT  see {@link SnapshotCodec}
+ *   FULL      the room has no free slot; the server closes the connection
+ * </pre>
+ */
+final class NetProtocol {
+    static final int VERSION = 2;
+    static final int DEFAULT_PORT = 7777;
+    static final int MAX_FRAME = 1 << 20;
+
+    static final byte HELLO = 1;
+    static final byte INPUT = 2;
+    static final byte ACK = 3;
+    static final byte WELCOME = 16;
+    static final byte SNAPSHOT = 17;
+    static final byte FULL = 18;
+
+    private NetProtocol() {
+    }
+
+    /** Reserves the frame length and writes the tag; finish with {@link #endFrame}. */
+    static int beginFrame(ByteBuffer out, byte tag) {
+        int start = out.position();
+        out.putInt(0);
+        out.put(tag);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - Integer.BYTES);
+    }
+
+    /**
+     * Returns the length of the complete frame at the buffer's position, or -1 if more bytes are needed.
+     * The buffer must be in read mode.
+     */
+    static int frameLength(ByteBuffer in) throws IOException {
+        if (in.remaining() < Integer.BYTES) {
+            return -1;
+        }
+        int length = in.getInt(in.position());
+        if (length < 1 || length > MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        return in.remaining() >= Integer.BYTES + length ? length : -1;
+    }
+
+    static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /** Maps small negative and positive numbers to small unsigned ones, so deltas of either sign stay short. */
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) throws IOException {
+        int length = getVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Writes as much of {@code out} (in read mode) as the socket takes without blocking; true once it is empty. */
+    static boolean flush(SocketChannel channel, ByteBuffer out) throws IOException {
+        while (out.hasRemaining()) {
+            if (channel.write(out) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A buffer twice as large holding the same bytes, in the same mode. */
+    static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
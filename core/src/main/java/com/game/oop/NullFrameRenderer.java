@@ -0,0 +1,9 @@
+package com.game.oop;
+
+/** Renderer for headless runs such as servers and benchmarks: accepts every frame and draws nothing. */
+final class NullFrameRenderer implements FrameRenderer {
+    @Override
+    public void render(RenderFrame frame) {
+        // headless
+    }
+}
@@ -0,0 +1,47 @@
+package com.game.oop;
+
+import java.util.Set;
+
+final class Player {
+    static final double SIZE = 20;
+    static final double SPEED = 480;
+
+    /** Stable within a world; multiplayer snapshots identify players by it. */
+    final int id;
+    double x;
+    double y;
+    double prevX;
+    double prevY;
+    final double size;
+    final double baseSpeed;
+    double speed;
+    double stunnedUntil;
+    /** Inputs this player holds; the world moves every player by its own set each tick. */
+    Set<GameWorld.Input> held = Set.of();
+    /** Sequence number of the newest client input applied to this player; echoed in snapshots for prediction. */
+    int inputSequence;
+
+    Player(int id, double x, double y, double size, double speed) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.baseSpeed = speed;
+        this.speed = speed;
+        this.stunnedUntil = 0;
+        snapPrevious();
+    }
+
+    void snapPrevious() {
+        prevX = x;
+        prevY = y;
+    }
+
+    double centerX() {
+        return x + size / 2.0;
+    }
+
+    double centerY() {
+        return y + size / 2.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.game.oop;
+
+import java.util.Set;
+
+/**
+ * One tick of player movement, shared by {@link GameWorld} and {@link ClientPrediction} so a client predicting its
+ * own player moves it exactly as the server will. The step depends only on its arguments.
+ */
+final class PlayerMotion {
+    /** How far the player stops short of a wall tile, so the box never counts as touching it. */
+    private static final double WALL_GAP = 1e-6;
+
+    private PlayerMotion() {
+    }
+
+    /**
+     * Moves {@code player} by {@code inputs} for {@code dt} seconds, kept inside {@code width x height}, or slid
+     * along the walls of {@code map} when it is not {@code null}. A player that cannot move stands still.
+     */
+    static void step(Player player, Set<GameWorld.Input> inputs, boolean canMove, double dt, double width,
+                     double height, TileMap map) {
+        player.speed = canMove ? player.baseSpeed : 0;
+
+        double dx = 0;
+        double dy = 0;
+
+        if (canMove) {
+            if (inputs.contains(GameWorld.Input.UP)) {
+                dy -= 1;
+            }
+            if (inputs.contains(GameWorld.Input.DOWN)) {
+                dy += 1;
+            }
+            if (inputs.contains(GameWorld.Input.LEFT)) {
+                dx -= 1;
+            }
+            if (inputs.contains(GameWorld.Input.RIGHT)) {
+                dx += 1;
+            }
+        }
+
+        if (dx != 0 || dy != 0) {
+            double length = Math.sqrt(dx * dx + dy * dy);
+            dx = (dx / length) * player.speed * dt;
+            dy = (dy / length) * player.speed * dt;
+        }
+
+        if (map != null) {
+            moveThroughMap(player, dx, dy, map);
+            return;
+        }
+        player.x = GameMath.clamp(player.x + dx, 0, width - player.size);
+        player.y = GameMath.clamp(player.y + dy, 0, height - player.size);
+    }
+
+    /**
+     * Moves one axis at a time so the player slides along walls; a move into a wall stops flush against it.
+     * Steps are shorter than a tile, so only the first tile row or column past the player can block.
+     */
+    private static void moveThroughMap(Player player, double dx, double dy, TileMap map) {
+        double size = player.size;
+        double tile = TileMap.TILE_SIZE;
+        if (dx != 0) {
+            double x = player.x + dx;
+            if (map.blocks(x, player.y, size, size)) {
+                x = dx > 0 ? Math.floor((x + size) / tile) * tile - size - WALL_GAP : (Math.floor(x / tile) + 1) * tile;
+                if (map.blocks(x, player.y, size, size)) {
+                    x = player.x;
+                }
+            }
+            player.x = x;
+        }
+        if (dy != 0) {
+            double y = player.y + dy;
+            if (map.blocks(player.x, y, size, size)) {
+                y = dy > 0 ? Math.floor((y + size) / tile) * tile - size - WALL_GAP : (Math.floor(y / tile) + 1) * tile;
+                if (map.blocks(player.x, y, size, size)) {
+                    y = player.y;
+                }
+            }
+            player.y = y;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for every live projectile. Slots {@code [0, size())} are live; removal swaps the
+ * last projectile into the freed slot, and {@link #clear()} keeps the arrays so their capacity carries over
+ * from one stage to the next. Spawning and updating never allocate once the pool has grown to its peak size.
+ */
+final class ProjectilePool {
+    static final double RADIUS = 4;
+    private static final int INITIAL_CAPACITY = 64;
+
+    double[] x = new double[INITIAL_CAPACITY];
+    double[] y = new double[INITIAL_CAPACITY];
+    double[] prevX = new double[INITIAL_CAPACITY];
+    double[] prevY = new double[INITIAL_CAPACITY];
+    double[] vx = new double[INITIAL_CAPACITY];
+    double[] vy = new double[INITIAL_CAPACITY];
+    double[] radius = new double[INITIAL_CAPACITY];
+    /** Projectiles far from every player, set by the world each tick; they hang in place until someone comes near. */
+    boolean[] dormant = new boolean[INITIAL_CAPACITY];
+    int dormantCount;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** Adds a projectile travelling along the unit direction {@code (dirX, dirY)} and returns its slot. */
+    int spawn(double startX, double startY, double dirX, double dirY, double speed) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = startX;
+        y[i] = startY;
+        prevX[i] = startX;
+        prevY[i] = startY;
+        vx[i] = dirX * speed;
+        vy[i] = dirY * speed;
+        radius[i] = RADIUS;
+        dormant[i] = false;
+        return i;
+    }
+
+    void update(double dt) {
+        for (int i = 0; i < size; i++) {
+            if (dormant[i]) {
+                continue;
+            }
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+    }
+
+    /** Removes slot {@code i} by moving the last projectile into it. */
+    void removeAt(int i) {
+        int last = --size;
+        if (dormant[i]) {
+            dormantCount--;
+        }
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            radius[i] = radius[last];
+            dormant[i] = dormant[last];
+        }
+    }
+
+    void clear() {
+        size = 0;
+        dormantCount = 0;
+    }
+
+    boolean hitsPlayer(int i, Player player) {
+        return GameMath.circlesOverlap(x[i], y[i], radius[i], player.centerX(), player.centerY(), player.size / 2.0);
+    }
+
+    boolean outOfBounds(int i, double width, double height) {
+        return x[i] < -10 || x[i] > width + 10 || y[i] < -10 || y[i] > height + 10;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        dormant = Arrays.copyOf(dormant, capacity);
+    }
+}
@@ -0,0 +1,59 @@
+package com.game.oop;
+
+import java.util.List;
+
+final class PulseSystem {
+    static final double PULSE_DURATION = 0.5;
+    static final double PULSE_RADIUS = 150;
+    private static final double STUN_DURATION = 0.9;
+
+    private PulseSystem() {
+    }
+
+    /** Runs the pulse cooldown; a pulse starts on the tick its wind-up ends. */
+    static void updateCycles(MonsterStore monsters, int from, int to, double now) {
+        int[] members = monsters.members(MonsterStore.PULSE);
+        int end = monsters.firstMember(MonsterStore.PULSE, to);
+        for (int m = monsters.firstMember(MonsterStore.PULSE, from); m < end; m++) {
+            int i = members[m];
+            if (monsters.dormant[i]) {
+                continue;
+            }
+            if (monsters.stepSkillCycle(i, now, monsters.skillCooldown[i])) {
+                monsters.lastSkillTime[i] = now;
+            }
+        }
+    }
+
+    /**
+     * Stuns every player still inside the active pulse of a monster that moved this tick. Runs after chasing.
+     */
+    static void applyStuns(MonsterStore monsters, int from, int to, List<Player> players, double now,
+                           MonsterEffects effects) {
+        int[] members = monsters.members(MonsterStore.PULSE);
+        int end = monsters.firstMember(MonsterStore.PULSE, to);
+        for (int m = monsters.firstMember(MonsterStore.PULSE, from); m < end; m++) {
+            int i = members[m];
+            if (monsters.busy[i] || monsters.dormant[i] || now - monsters.lastSkillTime[i] > PULSE_DURATION) {
+                continue;
+            }
+            for (int p = 0; p < players.size(); p++) {
+                Player player = players.get(p);
+                if (GameMath.withinRange(monsters.x[i], monsters.y[i], player.centerX(), player.centerY(),
+                        PULSE_RADIUS)) {
+                    effects.stunPlayerUntil(p, now + STUN_DURATION);
+                }
+            }
+        }
+    }
+
+    /** Radius of the expanding pulse ring for slot {@code i}, or a negative value while no pulse is active. */
+    static double pulseRadius(MonsterStore monsters, int i, double now) {
+        double elapsed = now - monsters.lastSkillTime[i];
+        if (elapsed < 0 || elapsed > PULSE_DURATION) {
+            return -1;
+        }
+        double progress = Math.min(1.0, elapsed / PULSE_DURATION);
+        return PULSE_RADIUS * (0.5 + 0.5 * progress);
+    }
+}
@@ -0,0 +1,22 @@
+package com.game.oop;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/** Holds a random direction, diagonal or standstill for a random fraction of a second, then picks again. */
+final class RandomWalkPolicy implements InputPolicy {
+    private static final int MIN_HOLD_TICKS = 6;
+    private static final int MAX_HOLD_TICKS = 60;
+
+    private int mask;
+    private int ticksLeft;
+
+    @Override
+    public Set<GameWorld.Input> next(GameWorld world, SplittableRandom random) {
+        if (ticksLeft-- <= 0) {
+            mask = random.nextInt(InputMask.COMBINATIONS);
+            ticksLeft = random.nextInt(MIN_HOLD_TICKS, MAX_HOLD_TICKS);
+        }
+        return InputMask.toSet(mask);
+    }
+}
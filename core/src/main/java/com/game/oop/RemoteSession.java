@@ -0,0 +1,380 @@
+package com.game.oop;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A game played on a {@link GameServer}, driven by a front end or a bot the way a local {@link GameWorld} is:
+ * {@link #update} with the frame time and an {@link InputQueue}, {@link #writeFrame} to draw. A virtual thread reads
+ * the socket and queues whole messages; {@link #update} handles them on the caller's thread, acknowledging every
+ * snapshot and reconciling the local player's {@link ClientPrediction} with it, then runs the due client ticks at the
+ * server's tick rate, predicting each input locally and sending it. Everything else is drawn through an
+ * {@link EntityInterpolator}. Apart from {@link #close()}, only the driving thread may call in.
+ */
+final class RemoteSession implements Closeable {
+    /** Decoded snapshots kept as delta bases; the server deltas against at most its own, smaller, history. */
+    private static final int HISTORY = 64;
+
+    private final SocketChannel channel;
+    private final Thread reader;
+    private final Queue<ByteBuffer> incoming = new ConcurrentLinkedQueue<>();
+    private volatile IOException failure;
+    private final ByteBuffer out = ByteBuffer.allocate(256);
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    private Snapshot spare = new Snapshot();
+    private Snapshot latest;
+    private final TickProfiler profiler = new TickProfiler("client");
+
+    private int playerId = -1;
+    private double tickRate = GameWorld.DEFAULT_TICK_RATE;
+    private FixedTimestep timestep = new FixedTimestep(tickRate);
+    private ClientPrediction prediction;
+    private EntityInterpolator interpolator;
+    private final TileMap map = new TileMap();
+    private long mapSeed;
+    private int mapColumns;
+    private int mapRows;
+    private double viewWidth;
+    private double viewHeight;
+    private double clock;
+    private String message;
+    private double messageUntil;
+
+    private long snapshots;
+    private long fullSnapshots;
+    private long bytesReceived;
+    private long mismatches;
+
+    private RemoteSession(SocketChannel channel, double viewWidth, double viewHeight) {
+        this.channel = channel;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        reader = Thread.ofVirtual().name("session-reader").unstarted(this::read);
+    }
+
+    /** Connects and joins {@code room}; play starts once the server's first snapshot has arrived. */
+    static RemoteSession connect(InetSocketAddress address, String room, double viewWidth, double viewHeight)
+            throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        RemoteSession session = new RemoteSession(channel, viewWidth, viewHeight);
+        session.out.clear();
+        int frame = NetProtocol.beginFrame(session.out, NetProtocol.HELLO);
+        NetProtocol.putVarInt(session.out, NetProtocol.VERSION);
+        NetProtocol.putString(session.out, room);
+        NetProtocol.endFrame(session.out, frame);
+        session.flush();
+        session.reader.start();
+        return session;
+    }
+
+    /** {@code -Ddungeon.server=host[:port]} with an optional {@code -Ddungeon.room=name}, or {@code null}. */
+    static RemoteSession connectIfRequested(double viewWidth, double viewHeight) throws IOException {
+        String server = System.getProperty("dungeon.server");
+        if (server == null || server.isBlank()) {
+            return null;
+        }
+        int colon = server.lastIndexOf(':');
+        String host = colon < 0 ? server : server.substring(0, colon);
+        int port = colon < 0 ? NetProtocol.DEFAULT_PORT : Integer.parseInt(server.substring(colon + 1));
+        return connect(new InetSocketAddress(host, port), System.getProperty("dungeon.room", "lobby"), viewWidth,
+                viewHeight);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with a socket that fails to close.
+        }
+        reader.interrupt();
+    }
+
+    /** Why the connection ended, or {@code null} while it is up. */
+    IOException failure() {
+        return failure;
+    }
+
+    TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    void resize(double width, double height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    /**
+     * Handles everything the server sent, then runs the client ticks that {@code frameSeconds}, ending at
+     * {@code nowNanos}, makes due, each sending and predicting what {@code inputs} held during it; returns how many
+     * ran. Nothing is predicted before the first snapshot, and inputs until then are discarded.
+     */
+    int update(double frameSeconds, InputQueue inputs, long nowNanos) {
+        long start = profiler.start();
+        ByteBuffer message;
+        try {
+            while (failure == null && (message = incoming.poll()) != null) {
+                handle(message);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        clock += frameSeconds;
+        if (failure != null || prediction == null || !prediction.isStarted()) {
+            inputs.takeUntil(nowNanos);
+            return 0;
+        }
+        interpolator.advance(frameSeconds);
+        int ticks = timestep.advance(frameSeconds);
+        out.clear();
+        for (int i = 0; i < ticks; i++) {
+            int mask = inputs.takeUntil(timestep.dueAtNanos(i, ticks, nowNanos));
+            int frame = NetProtocol.beginFrame(out, NetProtocol.INPUT);
+            NetProtocol.putVarInt(out, prediction.predict(mask));
+            out.put((byte) mask);
+            NetProtocol.endFrame(out, frame);
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+        profiler.lap(TickProfiler.Phase.PLAYER, start);
+        return ticks;
+    }
+
+    private void handle(ByteBuffer message) throws IOException {
+        byte tag = message.get();
+        switch (tag) {
+            case NetProtocol.WELCOME -> {
+                playerId = NetProtocol.getVarInt(message);
+                tickRate = message.getDouble();
+                int ticksPerSnapshot = NetProtocol.getVarInt(message);
+                timestep = new FixedTimestep(tickRate);
+                prediction = new ClientPrediction(timestep.getTickSeconds());
+                interpolator = new EntityInterpolator(tickRate, ticksPerSnapshot);
+            }
+            case NetProtocol.FULL -> throw new IOException("Room is full");
+            case NetProtocol.SNAPSHOT -> receiveSnapshot(message);
+            default -> throw new IOException("Unknown message tag " + tag);
+        }
+    }
+
+    private void receiveSnapshot(ByteBuffer message) throws IOException {
+        if (prediction == null) {
+            throw new IOException("Snapshot before WELCOME");
+        }
+        snapshots++;
+        bytesReceived += Integer.BYTES + message.limit();
+        int baseSequence = SnapshotCodec.baseSequence(message);
+        Snapshot base = null;
+        if (baseSequence == 0) {
+            fullSnapshots++;
+        } else {
+            base = history[baseSequence % HISTORY];
+            if (base == null || base.sequence != baseSequence) {
+                throw new IOException("Missing base snapshot " + baseSequence);
+            }
+        }
+        Snapshot snapshot = spare;
+        if (!SnapshotCodec.decode(message, base, snapshot)) {
+            // Not acknowledged, so the server keeps sending deltas against an older snapshot that did decode.
+            mismatches++;
+            return;
+        }
+        // The evicted snapshot is HISTORY sequences old: no longer a delta base and long out of the interpolator.
+        Snapshot evicted = history[snapshot.sequence % HISTORY];
+        history[snapshot.sequence % HISTORY] = snapshot;
+        spare = evicted != null ? evicted : new Snapshot();
+
+        out.clear();
+        int frame = NetProtocol.beginFrame(out, NetProtocol.ACK);
+        NetProtocol.putVarInt(out, snapshot.sequence);
+        NetProtocol.endFrame(out, frame);
+        flush();
+
+        adopt(snapshot);
+    }
+
+    /** Takes over the stage, the map and the local player's authoritative state from a new snapshot. */
+    private void adopt(Snapshot snapshot) {
+        if (latest != null && snapshot.header(Snapshot.STAGE) != latest.header(Snapshot.STAGE)) {
+            message = HudText.stageBanner(snapshot.header(Snapshot.STAGE));
+            messageUntil = clock + GameWorld.MESSAGE_DURATION;
+        }
+        latest = snapshot;
+        int columns = snapshot.header(Snapshot.MAP_COLUMNS);
+        long seed = (long) snapshot.header(Snapshot.MAP_SEED_HIGH) << 32
+                | (snapshot.header(Snapshot.MAP_SEED_LOW) & 0xFFFFFFFFL);
+        if (columns > 0
+                && (seed != mapSeed || columns != mapColumns || snapshot.header(Snapshot.MAP_ROWS) != mapRows)) {
+            mapSeed = seed;
+            mapColumns = columns;
+            mapRows = snapshot.header(Snapshot.MAP_ROWS);
+            map.reset(seed, mapColumns, mapRows);
+        }
+        prediction.setWorld(Snapshot.toPixels(snapshot.header(Snapshot.WIDTH)),
+                Snapshot.toPixels(snapshot.header(Snapshot.HEIGHT)), columns > 0 ? map : null);
+        interpolator.add(snapshot, System.nanoTime());
+
+        int stride = Snapshot.STRIDES[Snapshot.PLAYERS];
+        int[] players = snapshot.values[Snapshot.PLAYERS];
+        for (int i = 0; i < snapshot.counts[Snapshot.PLAYERS] * stride; i += stride) {
+            if (players[i] != playerId) {
+                continue;
+            }
+            double x = Snapshot.toPixels(players[i + 1]);
+            double y = Snapshot.toPixels(players[i + 2]);
+            if (!prediction.isStarted()) {
+                prediction.start(x, y, Player.SIZE, Player.SPEED);
+            }
+            prediction.reconcile(players[i + 4], x, y, players[i + 3],
+                    (snapshot.header(Snapshot.FLAGS) & Snapshot.FLAG_DEAD) != 0);
+            return;
+        }
+    }
+
+    /** Fills {@code frame} like {@link GameWorld#writeFrame}, from the prediction and the interpolated entities. */
+    void writeFrame(RenderFrame frame) {
+        long start = profiler.start();
+        frame.clearEntities();
+        frame.width = viewWidth;
+        frame.height = viewHeight;
+        frame.time = clock;
+        frame.tickSeconds = timestep.getTickSeconds();
+        frame.baseAlpha = timestep.alpha();
+        frame.alpha = frame.baseAlpha;
+        if (latest == null || prediction == null || !prediction.isStarted()) {
+            frame.worldWidth = viewWidth;
+            frame.worldHeight = viewHeight;
+            frame.hud[3] = failure != null ? HudText.DISCONNECTED : HudText.CONNECTING;
+            return;
+        }
+        frame.worldWidth = Snapshot.toPixels(latest.header(Snapshot.WIDTH));
+        frame.worldHeight = Snapshot.toPixels(latest.header(Snapshot.HEIGHT));
+        frame.layoutVersion = latest.header(Snapshot.LAYOUT_VERSION);
+
+        // The correction offset decays per tick, so draw the blended position as a still point.
+        Player player = prediction.player();
+        frame.playerPrevX = prediction.drawX(frame.alpha);
+        frame.playerPrevY = prediction.drawY(frame.alpha);
+        frame.playerX = frame.playerPrevX;
+        frame.playerY = frame.playerPrevY;
+        frame.playerSize = player.size;
+        frame.playerStunned = prediction.isStunned();
+        if (latest.header(Snapshot.MAP_COLUMNS) > 0) {
+            writeTiles(frame);
+        }
+        writeDoors(frame);
+        interpolator.writeOthers(frame, playerId);
+        interpolator.writeMonsters(frame);
+        interpolator.writeProjectiles(frame);
+
+        boolean dead = (latest.header(Snapshot.FLAGS) & Snapshot.FLAG_DEAD) != 0;
+        frame.hud[0] = HudText.stageCounter(latest.header(Snapshot.STAGE));
+        frame.hud[1] = frame.playerStunned ? HudText.STUNNED : null;
+        frame.hud[2] = dead ? HudText.YOU_DIED : null;
+        frame.hud[3] = failure != null ? HudText.DISCONNECTED
+                : message != null && clock < messageUntil ? message : null;
+        profiler.lap(TickProfiler.Phase.FRAME, start);
+    }
+
+    private void writeTiles(RenderFrame frame) {
+        double tile = TileMap.TILE_SIZE;
+        double viewX = RenderFrame.viewOrigin(frame.playerX + frame.playerSize / 2, viewWidth, frame.worldWidth);
+        double viewY = RenderFrame.viewOrigin(frame.playerY + frame.playerSize / 2, viewHeight, frame.worldHeight);
+        int column = Math.max(0, (int) (viewX / tile) - 1);
+        int row = Math.max(0, (int) (viewY / tile) - 1);
+        int columns = Math.min(map.columns(), (int) ((viewX + viewWidth) / tile) + 2) - column;
+        int rows = Math.min(map.rows(), (int) ((viewY + viewHeight) / tile) + 2) - row;
+        map.copyRegion(column, row, columns, rows, frame.beginTiles(tile, column, row, columns, rows));
+    }
+
+    private void writeDoors(RenderFrame frame) {
+        DoorType[] types = DoorType.values();
+        double size = Snapshot.toPixels(latest.header(Snapshot.DOOR_SIZE));
+        double px = frame.playerX + frame.playerSize / 2;
+        double py = frame.playerY + frame.playerSize / 2;
+        int stride = Snapshot.STRIDES[Snapshot.DOORS];
+        int[] doors = latest.values[Snapshot.DOORS];
+        for (int i = 0; i < latest.counts[Snapshot.DOORS] * stride; i += stride) {
+            double x = Snapshot.toPixels(doors[i]);
+            double y = Snapshot.toPixels(doors[i + 1]);
+            if (GameMath.withinRange(px, py, x + size / 2, y + size / 2, GameWorld.DOOR_VISIBILITY_RADIUS)) {
+                frame.addDoor(x, y, size, types[doors[i + 2]]);
+            }
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /** Reader thread: splits the stream into messages and hands copies to the driving thread. */
+    private void read() {
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        try {
+            while (true) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("Server closed the connection");
+                }
+                in.flip();
+                int length;
+                while ((length = NetProtocol.frameLength(in)) >= 0) {
+                    ByteBuffer message = ByteBuffer.allocate(length);
+                    message.put(0, in, in.position() + Integer.BYTES, length);
+                    in.position(in.position() + Integer.BYTES + length);
+                    incoming.add(message);
+                }
+                in.compact();
+                if (!in.hasRemaining()) {
+                    in = NetProtocol.grow(in);
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    long snapshots() {
+        return snapshots;
+    }
+
+    long fullSnapshots() {
+        return fullSnapshots;
+    }
+
+    long bytesReceived() {
+        return bytesReceived;
+    }
+
+    long mismatches() {
+        return mismatches;
+    }
+
+    ClientPrediction prediction() {
+        return prediction;
+    }
+
+    EntityInterpolator interpolator() {
+        return interpolator;
+    }
+}
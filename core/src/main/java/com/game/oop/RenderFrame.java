@@ -0,0 +1,301 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * Backend-neutral description of one frame: everything a renderer needs to draw the world, copied out of the
+ * simulation into flat primitive arrays. Positions are stored as the previous and current tick values so a
+ * renderer can blend them with {@link #alpha}. Frames are meant to be reused; {@link GameWorld#writeFrame}
+ * overwrites all of it and only grows the arrays when an entity count exceeds their capacity.
+ */
+final class RenderFrame {
+    static final int RING_TELEGRAPH = 0;
+    static final int RING_PULSE = 1;
+    static final int HUD_ROWS = 4;
+
+    /** Size of the view; positions below are in world coordinates, see {@link #viewX()}. */
+    double width;
+    double height;
+    /** Size of the world; larger than the view on dungeon stages, where the view follows the player. */
+    double worldWidth;
+    double worldHeight;
+    double time;
+    /** Changes whenever the doors are respawned or the world is resized; lets renderers cache static layers. */
+    int layoutVersion;
+    double tickSeconds;
+    /** Blend factor at the moment the frame was written. */
+    double baseAlpha;
+    /** Blend factor the draw helpers use; see {@link #alphaAt(long)}. */
+    double alpha;
+    /** {@link System#nanoTime()} when a simulation thread published the frame. */
+    long writtenAtNanos;
+
+    double playerPrevX;
+    double playerPrevY;
+    double playerX;
+    double playerY;
+    double playerSize;
+    boolean playerStunned;
+
+    /** Players other than the one the view follows, drawn at {@link #playerSize}. */
+    int otherCount;
+    double[] otherPrevX = new double[4];
+    double[] otherPrevY = new double[4];
+    double[] otherX = new double[4];
+    double[] otherY = new double[4];
+    boolean[] otherStunned = new boolean[4];
+
+    int doorCount;
+    double[] doorX = new double[8];
+    double[] doorY = new double[8];
+    double[] doorSize = new double[8];
+    byte[] doorType = new byte[8];
+
+    int monsterCount;
+    double[] monsterPrevX = new double[16];
+    double[] monsterPrevY = new double[16];
+    double[] monsterX = new double[16];
+    double[] monsterY = new double[16];
+    double[] monsterRadius = new double[16];
+    byte[] monsterKind = new byte[16];
+
+    int ringCount;
+    double[] ringPrevX = new double[16];
+    double[] ringPrevY = new double[16];
+    double[] ringX = new double[16];
+    double[] ringY = new double[16];
+    double[] ringRadius = new double[16];
+    byte[] ringStyle = new byte[16];
+
+    int projectileCount;
+    double[] projectilePrevX = new double[64];
+    double[] projectilePrevY = new double[64];
+    double[] projectileX = new double[64];
+    double[] projectileY = new double[64];
+    double[] projectileRadius = new double[64];
+
+    /**
+     * Dungeon tiles covering the view plus a one-tile margin, row-major, as {@link TileMap#WALL} or
+     * {@link TileMap#FLOOR}; {@code tileColumns} is 0 on open stages.
+     */
+    double tileSize;
+    int tileColumn;
+    int tileRow;
+    int tileColumns;
+    int tileRows;
+    byte[] tiles = new byte[0];
+
+    /** Fixed HUD rows (stage, stun, death, banner); a {@code null} row is not drawn. */
+    final String[] hud = new String[HUD_ROWS];
+
+    /**
+     * Blend factor for drawing this frame at {@code nowNanos}, extrapolating from {@link #baseAlpha} by the time
+     * elapsed since it was written. Clamped so a late frame never draws past the latest simulated state.
+     */
+    double alphaAt(long nowNanos) {
+        double elapsed = (nowNanos - writtenAtNanos) / 1_000_000_000.0;
+        return GameMath.clamp(baseAlpha + elapsed / tickSeconds, 0, 1);
+    }
+
+    /** Left edge of the view in world coordinates: centred on the drawn player and kept inside the world. */
+    double viewX() {
+        return viewOrigin(playerDrawX() + playerSize / 2, width, worldWidth);
+    }
+
+    double viewY() {
+        return viewOrigin(playerDrawY() + playerSize / 2, height, worldHeight);
+    }
+
+    /** Snapped to whole pixels so scrolling does not smear tile edges. */
+    static double viewOrigin(double center, double viewSize, double worldSize) {
+        if (worldSize <= viewSize) {
+            return 0;
+        }
+        return Math.floor(GameMath.clamp(center - viewSize / 2, 0, worldSize - viewSize));
+    }
+
+    double playerDrawX() {
+        return GameMath.lerp(playerPrevX, playerX, alpha);
+    }
+
+    double playerDrawY() {
+        return GameMath.lerp(playerPrevY, playerY, alpha);
+    }
+
+    double otherDrawX(int i) {
+        return GameMath.lerp(otherPrevX[i], otherX[i], alpha);
+    }
+
+    double otherDrawY(int i) {
+        return GameMath.lerp(otherPrevY[i], otherY[i], alpha);
+    }
+
+    double monsterDrawX(int i) {
+        return GameMath.lerp(monsterPrevX[i], monsterX[i], alpha);
+    }
+
+    double monsterDrawY(int i) {
+        return GameMath.lerp(monsterPrevY[i], monsterY[i], alpha);
+    }
+
+    double ringDrawX(int i) {
+        return GameMath.lerp(ringPrevX[i], ringX[i], alpha);
+    }
+
+    double ringDrawY(int i) {
+        return GameMath.lerp(ringPrevY[i], ringY[i], alpha);
+    }
+
+    double projectileDrawX(int i) {
+        return GameMath.lerp(projectilePrevX[i], projectileX[i], alpha);
+    }
+
+    double projectileDrawY(int i) {
+        return GameMath.lerp(projectilePrevY[i], projectileY[i], alpha);
+    }
+
+    void clearEntities() {
+        tileColumns = 0;
+        tileRows = 0;
+        otherCount = 0;
+        doorCount = 0;
+        monsterCount = 0;
+        ringCount = 0;
+        projectileCount = 0;
+        Arrays.fill(hud, null);
+    }
+
+    /** Returns a tile buffer for a {@code columns x rows} window starting at {@code (column, row)}. */
+    byte[] beginTiles(double size, int column, int row, int columns, int rows) {
+        if (tiles.length < columns * rows) {
+            tiles = new byte[columns * rows];
+        }
+        tileSize = size;
+        tileColumn = column;
+        tileRow = row;
+        tileColumns = columns;
+        tileRows = rows;
+        return tiles;
+    }
+
+    void addOther(double prevX, double prevY, double x, double y, boolean stunned) {
+        if (otherCount == otherX.length) {
+            int capacity = otherCount * 2;
+            otherPrevX = Arrays.copyOf(otherPrevX, capacity);
+            otherPrevY = Arrays.copyOf(otherPrevY, capacity);
+            otherX = Arrays.copyOf(otherX, capacity);
+            otherY = Arrays.copyOf(otherY, capacity);
+            otherStunned = Arrays.copyOf(otherStunned, capacity);
+        }
+        otherPrevX[otherCount] = prevX;
+        otherPrevY[otherCount] = prevY;
+        otherX[otherCount] = x;
+        otherY[otherCount] = y;
+        otherStunned[otherCount] = stunned;
+        otherCount++;
+    }
+
+    void addDoor(double x, double y, double size, DoorType type) {
+        if (doorCount == doorX.length) {
+            int capacity = doorCount * 2;
+            doorX = Arrays.copyOf(doorX, capacity);
+            doorY = Arrays.copyOf(doorY, capacity);
+            doorSize = Arrays.copyOf(doorSize, capacity);
+            doorType = Arrays.copyOf(doorType, capacity);
+        }
+        doorX[doorCount] = x;
+        doorY[doorCount] = y;
+        doorSize[doorCount] = size;
+        doorType[doorCount] = (byte) type.ordinal();
+        doorCount++;
+    }
+
+    void addMonster(double prevX, double prevY, double x, double y, double radius, MonsterKind kind) {
+        if (monsterCount == monsterX.length) {
+            int capacity = monsterCount * 2;
+            monsterPrevX = Arrays.copyOf(monsterPrevX, capacity);
+            monsterPrevY = Arrays.copyOf(monsterPrevY, capacity);
+            monsterX = Arrays.copyOf(monsterX, capacity);
+            monsterY = Arrays.copyOf(monsterY, capacity);
+            monsterRadius = Arrays.copyOf(monsterRadius, capacity);
+            monsterKind = Arrays.copyOf(monsterKind, capacity);
+        }
+        monsterPrevX[monsterCount] = prevX;
+        monsterPrevY[monsterCount] = prevY;
+        monsterX[monsterCount] = x;
+        monsterY[monsterCount] = y;
+        monsterRadius[monsterCount] = radius;
+        monsterKind[monsterCount] = (byte) kind.ordinal();
+        monsterCount++;
+    }
+
+    void addRing(double prevX, double prevY, double x, double y, double radius, int style) {
+        if (ringCount == ringX.length) {
+            int capacity = ringCount * 2;
+            ringPrevX = Arrays.copyOf(ringPrevX, capacity);
+            ringPrevY = Arrays.copyOf(ringPrevY, capacity);
+            ringX = Arrays.copyOf(ringX, capacity);
+            ringY = Arrays.copyOf(ringY, capacity);
+            ringRadius = Arrays.copyOf(ringRadius, capacity);
+            ringStyle = Arrays.copyOf(ringStyle, capacity);
+        }
+        ringPrevX[ringCount] = prevX;
+        ringPrevY[ringCount] = prevY;
+        ringX[ringCount] = x;
+        ringY[ringCount] = y;
+        ringRadius[ringCount] = radius;
+        ringStyle[ringCount] = (byte) style;
+        ringCount++;
+    }
+
+    void addProjectile(double prevX, double prevY, double x, double y, double radius) {
+        if (projectileCount == projectileX.length) {
+            int capacity = projectileCount * 2;
+            projectilePrevX = Arrays.copyOf(projectilePrevX, capacity);
+            projectilePrevY = Arrays.copyOf(projectilePrevY, capacity);
+            projectileX = Arrays.copyOf(projectileX, capacity);
+            projectileY = Arrays.copyOf(projectileY, capacity);
+            projectileRadius = Arrays.copyOf(projectileRadius, capacity);
+        }
+        projectilePrevX[projectileCount] = prevX;
+        projectilePrevY[projectileCount] = prevY;
+        projectileX[projectileCount] = x;
+        projectileY[projectileCount] = y;
+        projectileRadius[projectileCount] = radius;
+        projectileCount++;
+    }
+
+    /** Copies the live projectiles that are not dormant out of the pool's arrays, in bulk when none are. */
+    void copyProjectiles(ProjectilePool pool) {
+        int count = pool.size();
+        if (count > projectileX.length) {
+            int capacity = Math.max(count, projectileX.length * 2);
+            projectilePrevX = new double[capacity];
+            projectilePrevY = new double[capacity];
+            projectileX = new double[capacity];
+            projectileY = new double[capacity];
+            projectileRadius = new double[capacity];
+        }
+        if (pool.dormantCount == 0) {
+            System.arraycopy(pool.prevX, 0, projectilePrevX, 0, count);
+            System.arraycopy(pool.prevY, 0, projectilePrevY, 0, count);
+            System.arraycopy(pool.x, 0, projectileX, 0, count);
+            System.arraycopy(pool.y, 0, projectileY, 0, count);
+            System.arraycopy(pool.radius, 0, projectileRadius, 0, count);
+            projectileCount = count;
+            return;
+        }
+        int copied = 0;
+        for (int i = 0; i < count; i++) {
+            if (!pool.dormant[i]) {
+                projectilePrevX[copied] = pool.prevX[i];
+                projectilePrevY[copied] = pool.prevY[i];
+                projectileX[copied] = pool.x[i];
+                projectileY[copied] = pool.y[i];
+                projectileRadius[copied] = pool.radius[i];
+                copied++;
+            }
+        }
+        projectileCount = copied;
+    }
+}
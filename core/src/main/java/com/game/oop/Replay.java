@@ -0,0 +1,167 @@
+package com.game.oop;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A recorded session, re-simulated headlessly by {@link #play()}. The binary layout (big-endian) is:
+ * <pre>
+ * int    magic "DERP", short version
+ * long   seed, double tick rate, double width, double height   (the world's constructor arguments)
+ * events, each starting with a tag byte:
+ *   0..15        input bitmask held for a run of ticks, followed by a varint run length
+ *   TAG_RESIZE   double width, double height, applied before the next tick
+ *   TAG_STAGES   varint length, then a stage file in UTF-8 ({@link StageTable#toProperties}), adopted by the
+ *                next tick the way a hot reload is
+ *   TAG_END      varint total ticks, long {@link GameWorld#checksum()} after the last tick
+ * </pre>
+ */
+final class Replay {
+    static final int MAGIC = 0x44455250;
+    /** Bumped whenever the simulation consumes randomness differently, since older recordings cannot replay. */
+    static final int VERSION = 3;
+    /** Version 3 only added {@link #TAG_STAGES}, so version 2 recordings still replay. */
+    private static final int OLDEST_VERSION = 2;
+    static final int TAG_RESIZE = 0x20;
+    static final int TAG_STAGES = 0x21;
+    static final int TAG_END = 0x7F;
+
+    final long seed;
+    final double tickRate;
+    final double width;
+    final double height;
+    private final byte[] events;
+
+    private Replay(long seed, double tickRate, double width, double height, byte[] events) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.width = width;
+        this.height = height;
+        this.events = events;
+    }
+
+    static Replay read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return read(in);
+        }
+    }
+
+    static Replay read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = data.readUnsignedShort();
+        if (version < OLDEST_VERSION || version > VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        return new Replay(data.readLong(), data.readDouble(), data.readDouble(), data.readDouble(),
+                data.readAllBytes());
+    }
+
+    /** Re-runs the session tick by tick on a fresh world, without any rendering or wall-clock pacing. */
+    Result play() throws IOException {
+        GameWorld world = new GameWorld(width, height, tickRate, seed);
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(events));
+        long start = System.nanoTime();
+        long ticks = 0;
+        while (true) {
+            int tag = data.readUnsignedByte();
+            if (tag < InputMask.COMBINATIONS) {
+                long run = readVarLong(data);
+                for (long i = 0; i < run; i++) {
+                    world.tick(InputMask.toSet(tag));
+                }
+                ticks += run;
+            } else if (tag == TAG_RESIZE) {
+                world.resize(data.readDouble(), data.readDouble());
+            } else if (tag == TAG_STAGES) {
+                long length = readVarLong(data);
+                if (length > data.available()) {
+                    throw new IOException("Stage table of " + length + " bytes runs past the end of the replay");
+                }
+                byte[] properties = data.readNBytes((int) length);
+                try {
+                    world.offerStageTable(StageTable.parse(new StringReader(new String(properties,
+                            StandardCharsets.UTF_8))));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Bad stage table in replay: " + e.getMessage(), e);
+                }
+            } else if (tag == TAG_END) {
+                long recordedTicks = readVarLong(data);
+                long recordedChecksum = data.readLong();
+                if (recordedTicks != ticks) {
+                    throw new IOException("Replay declares " + recordedTicks + " ticks but contains " + ticks);
+                }
+                return new Result(world, ticks, recordedChecksum, System.nanoTime() - start);
+            } else {
+                throw new IOException("Unknown replay tag " + tag);
+            }
+        }
+    }
+
+    static final class Result {
+        final GameWorld world;
+        final long ticks;
+        final long expectedChecksum;
+        final long actualChecksum;
+        final long elapsedNanos;
+
+        private Result(GameWorld world, long ticks, long expectedChecksum, long elapsedNanos) {
+            this.world = world;
+            this.ticks = ticks;
+            this.expectedChecksum = expectedChecksum;
+            this.actualChecksum = world.checksum();
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        boolean matches() {
+            return expectedChecksum == actualChecksum;
+        }
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /** Plays every replay file given and exits non-zero if any of them no longer reproduces its checksum. */
+    public static void main(String[] args) throws IOException {
+        boolean allMatch = true;
+        for (String arg : args) {
+            Result result = read(Path.of(arg)).play();
+            double millis = result.elapsedNanos / 1_000_000.0;
+            System.out.printf("%s: %d ticks in %.1f ms (%.0f ticks/s), stage %d, checksum %s%n", arg, result.ticks,
+                    millis, result.ticks / Math.max(millis / 1000.0, 1e-9), result.world.getStage(),
+                    result.matches() ? "ok" : "MISMATCH");
+            allMatch &= result.matches();
+        }
+        if (!allMatch) {
+            System.exit(1);
+        }
+    }
+}
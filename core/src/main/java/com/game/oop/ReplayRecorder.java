@@ -0,0 +1,137 @@
+package com.game.oop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Records a session in the {@link Replay} format while it is being played. Ticks with identical inputs are
+ * run-length encoded, so an idle minute costs a few bytes. Resizes and adopted stage tables are recorded at the tick
+ * they take effect. Driven from whichever thread ticks the world.
+ */
+final class ReplayRecorder {
+    private static final System.Logger LOG = System.getLogger(ReplayRecorder.class.getName());
+
+    private final GameWorld world;
+    private final double width;
+    private final double height;
+    private final ByteArrayOutputStream events = new ByteArrayOutputStream(4096);
+    private final DataOutputStream out = new DataOutputStream(events);
+    private int runMask = -1;
+    private long runLength;
+    private long ticks;
+    private Path target;
+
+    private ReplayRecorder(GameWorld world) {
+        this.world = world;
+        this.width = world.getWidth();
+        this.height = world.getHeight();
+    }
+
+    /** Starts recording {@code world}, which must not have ticked yet, so the seed alone reproduces its state. */
+    static ReplayRecorder attach(GameWorld world) {
+        if (world.getCurrentTime() != 0) {
+            throw new IllegalStateException("Replays must start from a freshly created world");
+        }
+        ReplayRecorder recorder = new ReplayRecorder(world);
+        world.setRecorder(recorder);
+        return recorder;
+    }
+
+    /** Attaches a recorder when {@code -Ddungeon.record=<file>} is set; returns {@code null} otherwise. */
+    static ReplayRecorder attachIfRequested(GameWorld world) {
+        String path = System.getProperty("dungeon.record");
+        if (path == null) {
+            return null;
+        }
+        ReplayRecorder recorder = attach(world);
+        recorder.target = Path.of(path);
+        return recorder;
+    }
+
+    /** Saves to the file named by {@code -Ddungeon.record}, logging instead of throwing on failure. */
+    void saveRequested() {
+        try {
+            save(target);
+            LOG.log(System.Logger.Level.INFO, "Saved replay of {0} ticks to {1}", ticks, target);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Could not save replay to " + target, e);
+        }
+    }
+
+    void recordTick(Set<GameWorld.Input> inputs) {
+        int mask = InputMask.of(inputs);
+        if (mask != runMask) {
+            flushRun();
+            runMask = mask;
+        }
+        runLength++;
+        ticks++;
+    }
+
+    void recordResize(double newWidth, double newHeight) {
+        flushRun();
+        try {
+            out.writeByte(Replay.TAG_RESIZE);
+            out.writeDouble(newWidth);
+            out.writeDouble(newHeight);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Records {@code table} being adopted at the start of the next tick. */
+    void recordStageTable(StageTable table) {
+        flushRun();
+        try {
+            out.writeByte(Replay.TAG_STAGES);
+            byte[] properties = table.toProperties().getBytes(StandardCharsets.UTF_8);
+            Replay.writeVarLong(out, properties.length);
+            out.write(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes the replay recorded so far, ending with the world's current checksum. Recording continues. */
+    void writeTo(OutputStream target) throws IOException {
+        flushRun();
+        DataOutputStream data = new DataOutputStream(target);
+        data.writeInt(Replay.MAGIC);
+        data.writeShort(Replay.VERSION);
+        data.writeLong(world.getSeed());
+        data.writeDouble(world.getTickRate());
+        data.writeDouble(width);
+        data.writeDouble(height);
+        events.writeTo(data);
+        data.writeByte(Replay.TAG_END);
+        Replay.writeVarLong(data, ticks);
+        data.writeLong(world.checksum());
+        data.flush();
+    }
+
+    void save(Path path) throws IOException {
+        try (OutputStream target = Files.newOutputStream(path)) {
+            writeTo(target);
+        }
+    }
+
+    private void flushRun() {
+        if (runLength == 0) {
+            return;
+        }
+        try {
+            out.writeByte(runMask);
+            Replay.writeVarLong(out, runLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        runLength = 0;
+    }
+}
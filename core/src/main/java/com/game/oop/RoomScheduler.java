@@ -0,0 +1,209 @@
+package com.game.oop;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs many rooms' fixed-rate ticks on virtual threads. Each room is one virtual thread that sleeps until its next
+ * tick is due, so thousands of rooms cost no platform threads. Before ticking it takes one of a fixed number of run
+ * slots, handed out earliest deadline first: under load the room that has waited longest goes next instead of
+ * whichever thread the carrier pool happens to pick, and the slot count bounds how many ticks compete for CPU.
+ * <p>
+ * A room that falls more than {@link #MAX_CATCH_UP} ticks behind gives up the missed ticks instead of running them back
+ * to back, and a tick that takes longer than its period counts as an overrun. A room reporting itself idle runs its
+ * ticks in batches of {@link #IDLE_BATCH}, woken that many times less often, so its game time keeps pace with the
+ * clock. This is not load shedding: an idle room simulates every tick an active one does and only saves wake-ups and
+ * run slot hand-overs. Every room's lag, the time from a tick's deadline to its start, is kept in its {@link Handle}.
+ */
+final class RoomScheduler {
+    /** Ticks a room may run late back to back before the rest are skipped. */
+    static final int MAX_CATCH_UP = 4;
+    /** How many ticks an idle room runs per wake-up. */
+    static final int IDLE_BATCH = 4;
+    private static final double LAG_GAIN = 0.05;
+
+    /** What a room does each tick; called from the room's own thread only. */
+    interface Room {
+        /** Runs {@code steps} ticks back to back and returns {@code false} once the room has closed. */
+        boolean tick(int steps);
+
+        /** Whether nobody is playing, so ticks can be run in batches. */
+        boolean isIdle();
+    }
+
+    /** A scheduled room's thread and tick metrics. Metrics are written by the room's thread and safe to read. */
+    static final class Handle {
+        private final Thread thread;
+        private volatile boolean cancelled;
+        private volatile long ticks;
+        private volatile double meanLagNanos;
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private volatile long overruns;
+        private volatile long skippedTicks;
+        private volatile boolean batched;
+
+        private Handle(Thread thread) {
+            this.thread = thread;
+        }
+
+        /**
+         * Stops the room after its current tick. Not by interrupting: that would close whichever client socket the
+         * tick happens to be writing to.
+         */
+        void cancel() {
+            cancelled = true;
+            LockSupport.unpark(thread);
+        }
+
+        long ticks() {
+            return ticks;
+        }
+
+        /** Moving average of how late ticks start, in nanoseconds. */
+        double meanLagNanos() {
+            return meanLagNanos;
+        }
+
+        /** The latest tick start since the last call, in nanoseconds. */
+        long takeMaxLagNanos() {
+            return maxLagNanos.getAndSet(0);
+        }
+
+        long overruns() {
+            return overruns;
+        }
+
+        long skippedTicks() {
+            return skippedTicks;
+        }
+
+        /** Whether the room is idle and so running its ticks in batches; it still runs all of them. */
+        boolean isBatched() {
+            return batched;
+        }
+
+        private void record(long lagNanos, long tickNanos, long periodNanos, int steps) {
+            ticks += steps;
+            meanLagNanos += (lagNanos - meanLagNanos) * LAG_GAIN;
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+            if (tickNanos > periodNanos * steps) {
+                overruns++;
+            }
+        }
+    }
+
+    /** A room waiting for a run slot. */
+    private static final class Waiter {
+        final long deadline;
+        final long order;
+        final Condition signal;
+        boolean granted;
+
+        Waiter(long deadline, long order, Condition signal) {
+            this.deadline = deadline;
+            this.order = order;
+            this.signal = signal;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>((a, b) -> a.deadline != b.deadline
+            ? Long.compare(a.deadline - b.deadline, 0) : Long.compare(a.order, b.order));
+    private long order;
+    private int freeSlots;
+
+    /** {@code slots} ticks may run at once, usually one per core. */
+    RoomScheduler(int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Need at least one run slot, got " + slots);
+        }
+        this.freeSlots = slots;
+    }
+
+    /** Starts ticking {@code room} every {@code periodNanos}, the first tick one period from now. */
+    Handle start(String name, Room room, long periodNanos) {
+        Handle[] handle = new Handle[1];
+        Thread thread = Thread.ofVirtual().name("room-" + name).unstarted(() -> run(room, handle[0], periodNanos));
+        handle[0] = new Handle(thread);
+        thread.start();
+        return handle[0];
+    }
+
+    private void run(Room room, Handle handle, long periodNanos) {
+        long deadline = System.nanoTime() + periodNanos;
+        int steps = 1;
+        while (true) {
+            long wait;
+            while ((wait = deadline - System.nanoTime()) > 0 && !handle.cancelled) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (handle.cancelled) {
+                return;
+            }
+            acquire(deadline);
+            long start = System.nanoTime();
+            boolean open;
+            try {
+                open = !handle.cancelled && room.tick(steps);
+            } finally {
+                release();
+            }
+            long end = System.nanoTime();
+            handle.record(start - deadline, end - start, periodNanos, steps);
+            if (!open) {
+                return;
+            }
+            handle.batched = room.isIdle();
+            steps = handle.batched ? IDLE_BATCH : 1;
+            long interval = periodNanos * steps;
+            deadline += interval;
+            long behind = end - deadline;
+            if (behind > MAX_CATCH_UP * interval) {
+                long skipped = behind / interval;
+                handle.skippedTicks += skipped * steps;
+                deadline += skipped * interval;
+            }
+        }
+    }
+
+    /** Waits for a run slot, earliest deadline first. */
+    private void acquire(long deadline) {
+        lock.lock();
+        try {
+            if (freeSlots > 0) {
+                freeSlots--;
+                return;
+            }
+            Waiter waiter = new Waiter(deadline, order++, lock.newCondition());
+            waiting.add(waiter);
+            while (!waiter.granted) {
+                waiter.signal.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            handOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Gives a freed slot to the most overdue waiter, or back to the pool. */
+    private void handOver() {
+        Waiter next = waiting.poll();
+        if (next == null) {
+            freeSlots++;
+            return;
+        }
+        next.granted = true;
+        next.signal.signal();
+    }
+}
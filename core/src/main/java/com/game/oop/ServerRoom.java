@@ -0,0 +1,329 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One multiplayer {@link GameWorld} on a {@link GameServer}. The room ticks at the tick rate on its own virtual thread
+ * from the server's {@link RoomScheduler}, so the world, the player list and every client's outgoing bytes are only
+ * touched from that thread. Each tick admits waiting clients, drops disconnected ones, gives every player the next
+ * input its client queued and advances the world; every few ticks it captures a {@link Snapshot} and sends each client
+ * a delta against the newest snapshot that client acknowledged, or a full snapshot when that is older than the kept
+ * history. Clients whose socket is still backed up skip a snapshot instead of queueing it. A room where nobody has
+ * pressed a key for {@link #IDLE_SECONDS} reports itself idle and is woken less often, running the ticks due since in
+ * one go so its world keeps time; every tick still takes one input from each client. The room closes once its last
+ * client is gone. When the server keeps checkpoints, the room resumes from its {@link CheckpointFile} on its first
+ * tick, saves itself every {@link GameServer#checkpointTicks()} ticks (rooms are spread over that interval by name) and
+ * once more on closing.
+ */
+final class ServerRoom implements RoomScheduler.Room {
+    private static final System.Logger LOG = System.getLogger(ServerRoom.class.getName());
+    private static final double WIDTH = 960;
+    private static final double HEIGHT = 640;
+    /** Snapshots kept as delta bases: a bit over a second and a half at 20 per second. */
+    private static final int HISTORY = 32;
+    static final double IDLE_SECONDS = 5;
+
+    final String name;
+    private final GameServer server;
+    private final GameWorld world;
+    private final List<GameServer.Connection> joining = new ArrayList<>();
+    private final List<GameServer.Connection> clients = new ArrayList<>();
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    private ByteBuffer encoded = ByteBuffer.allocate(4096);
+    private final ByteBuffer control = ByteBuffer.allocate(64);
+    private final int idleTicks;
+    private RoomScheduler.Handle ticks;
+    private boolean closed;
+    private int tick;
+    private int sequence;
+    private int quietTicks;
+    private boolean checkpointOpened;
+    private CheckpointFile checkpoint;
+
+    ServerRoom(GameServer server, String name, long seed) {
+        this.server = server;
+        this.name = name;
+        world = new GameWorld(WIDTH, HEIGHT, server.tickRate(), seed);
+        world.getProfiler().setEnabled(false);
+        idleTicks = (int) Math.ceil(IDLE_SECONDS * server.tickRate());
+        for (int i = 0; i < HISTORY; i++) {
+            history[i] = new Snapshot();
+        }
+    }
+
+    void schedule() {
+        ticks = server.scheduler().start(name, this, Math.round(1e9 / server.tickRate()));
+    }
+
+    /** Lag and overrun metrics of this room's ticks. */
+    RoomScheduler.Handle ticks() {
+        return ticks;
+    }
+
+    /** Stops ticking; the server is shutting down. */
+    void cancel() {
+        ticks.cancel();
+    }
+
+    /** Queues a client for the next tick; false if the room has already closed. */
+    synchronized boolean offer(GameServer.Connection connection) {
+        if (closed) {
+            return false;
+        }
+        joining.add(connection);
+        return true;
+    }
+
+    @Override
+    public boolean isIdle() {
+        return quietTicks >= idleTicks;
+    }
+
+    @Override
+    public boolean tick(int steps) {
+        long start = System.nanoTime();
+        try {
+            if (!checkpointOpened) {
+                openCheckpoint();
+            }
+            admit();
+            dropDisconnected();
+            if (clients.isEmpty()) {
+                return !closeIfEmpty();
+            }
+            for (int i = 0; i < steps; i++) {
+                step();
+            }
+        } catch (RuntimeException e) {
+            // An exception would end the room's thread unseen, so close the room visibly instead.
+            LOG.log(System.Logger.Level.ERROR, "Room " + name + " failed; closing it", e);
+            synchronized (this) {
+                closed = true;
+                joining.forEach(server::disconnect);
+            }
+            clients.forEach(server::disconnect);
+            server.roomClosed(this);
+            return false;
+        } finally {
+            server.recordTick(System.nanoTime() - start, steps);
+        }
+        return true;
+    }
+
+    private void step() {
+        boolean active = false;
+        for (GameServer.Connection client : clients) {
+            active |= applyNextInput(client);
+        }
+        quietTicks = active ? 0 : quietTicks + 1;
+        world.tick();
+        tick++;
+        if (tick % server.ticksPerSnapshot() == 0) {
+            sendSnapshots();
+        }
+        if (checkpoint != null && Math.floorMod(tick + name.hashCode(), server.checkpointTicks()) == 0) {
+            saveCheckpoint();
+        }
+    }
+
+    private void admit() {
+        List<GameServer.Connection> admitted;
+        synchronized (this) {
+            if (joining.isEmpty()) {
+                return;
+            }
+            admitted = new ArrayList<>(joining);
+            joining.clear();
+        }
+        for (GameServer.Connection client : admitted) {
+            control.clear();
+            if (clients.size() >= GameServer.MAX_PLAYERS) {
+                NetProtocol.endFrame(control, NetProtocol.beginFrame(control, NetProtocol.FULL));
+                send(client, control.flip());
+                server.disconnect(client);
+                continue;
+            }
+            // The world always keeps one player, so the first client of a room takes over that one.
+            client.player = clients.isEmpty() ? world.getPlayer() : world.addPlayer();
+            client.player.inputSequence = 0;
+            clients.add(client);
+            quietTicks = 0;
+            int frame = NetProtocol.beginFrame(control, NetProtocol.WELCOME);
+            NetProtocol.putVarInt(control, client.player.id);
+            control.putDouble(server.tickRate());
+            NetProtocol.putVarInt(control, server.ticksPerSnapshot());
+            NetProtocol.endFrame(control, frame);
+            send(client, control.flip());
+        }
+    }
+
+    /**
+     * Holds the client's next queued input for this tick. A client whose input is late holds nothing rather than
+     * repeating its last keys, so the player moves exactly by the inputs the client predicted, only later. Returns
+     * whether any key is held.
+     */
+    private static boolean applyNextInput(GameServer.Connection client) {
+        long input = client.pollInput();
+        if (input < 0) {
+            client.player.held = InputMask.toSet(0);
+            return false;
+        }
+        int mask = (int) input & 0xFF;
+        client.player.held = InputMask.toSet(mask);
+        client.player.inputSequence = (int) (input >>> 8);
+        return mask != 0;
+    }
+
+    private void dropDisconnected() {
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            GameServer.Connection client = clients.get(i);
+            if (client.closed) {
+                clients.remove(i);
+                world.removePlayer(client.player);
+            }
+        }
+    }
+
+    /**
+     * Closes the room unless someone is about to join; returns whether it closed. The last checkpoint is saved while
+     * the room still takes joins: once it refuses them, a fresh room under the same name may open the same file.
+     */
+    private boolean closeIfEmpty() {
+        synchronized (this) {
+            if (!joining.isEmpty()) {
+                return false;
+            }
+        }
+        if (checkpoint != null) {
+            saveCheckpoint();
+        }
+        synchronized (this) {
+            if (!joining.isEmpty()) {
+                return false;
+            }
+            closed = true;
+        }
+        server.roomClosed(this);
+        return true;
+    }
+
+    /** Opens the room's checkpoint file, if the server keeps them, and resumes the world from it. */
+    private void openCheckpoint() {
+        checkpointOpened = true;
+        if (server.checkpointDir() == null) {
+            return;
+        }
+        Path path = server.checkpointDir().resolve(fileName(name) + ".dckp");
+        try {
+            checkpoint = CheckpointFile.open(path);
+            if (checkpoint.load(world)) {
+                // Players belong to connections, and nobody is connected yet; keep only the one a world needs.
+                List<Player> players = world.getPlayers();
+                while (players.size() > 1) {
+                    world.removePlayer(players.get(players.size() - 1));
+                }
+                LOG.log(System.Logger.Level.INFO, "Room {0} resumed from {1}", name, path);
+            }
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Room " + name + " could not resume from " + path
+                    + "; starting afresh", e);
+            try {
+                Files.deleteIfExists(path);
+                checkpoint = CheckpointFile.open(path);
+            } catch (IOException again) {
+                LOG.log(System.Logger.Level.WARNING, "Room " + name + " will not be checkpointed", again);
+                checkpoint = null;
+            }
+        }
+    }
+
+    private void saveCheckpoint() {
+        long start = System.nanoTime();
+        try {
+            checkpoint.save(world, false);
+            server.recordCheckpoint(System.nanoTime() - start);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Room " + name + " could not save a checkpoint; no longer saving", e);
+            checkpoint = null;
+        }
+    }
+
+    /** The room name as a portable file name: ASCII letters, digits, '-' and '_' kept, all else as %XX. */
+    private static String fileName(String room) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : room.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if (c < 128 && (Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+                name.append(c);
+            } else {
+                name.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return name.toString();
+    }
+
+    private void sendSnapshots() {
+        Snapshot snapshot = history[++sequence % HISTORY];
+        world.writeSnapshot(snapshot, tick);
+        snapshot.sequence = sequence;
+        // Clients usually acknowledge the same snapshot, so consecutive clients with one base share an encoding.
+        int encodedBase = -1;
+        for (GameServer.Connection client : clients) {
+            int acked = client.ackedSequence;
+            Snapshot base = acked > 0 && sequence - acked < HISTORY ? history[acked % HISTORY] : null;
+            int baseSequence = base == null || base.sequence != acked ? 0 : acked;
+            if (baseSequence != encodedBase) {
+                encode(snapshot, baseSequence == 0 ? null : base);
+                encodedBase = baseSequence;
+            }
+            if (send(client, encoded.duplicate())) {
+                server.recordSnapshot(encoded.remaining(), baseSequence == 0);
+            } else {
+                server.recordSkippedSnapshot();
+            }
+        }
+    }
+
+    private void encode(Snapshot snapshot, Snapshot base) {
+        while (true) {
+            try {
+                encoded.clear();
+                SnapshotCodec.encode(snapshot, base, encoded);
+                encoded.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                encoded = ByteBuffer.allocate(encoded.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Writes a whole message without blocking. Whatever the socket does not take is kept and sent first next
+     * time; while older bytes are still waiting the message is dropped, and false is returned.
+     */
+    private boolean send(GameServer.Connection client, ByteBuffer message) {
+        if (client.closed) {
+            return false;
+        }
+        try {
+            if (client.pending.hasRemaining() && !NetProtocol.flush(client.channel, client.pending)) {
+                return false;
+            }
+            if (!NetProtocol.flush(client.channel, message)) {
+                client.pending = ByteBuffer.allocate(message.remaining()).put(message).flip();
+            }
+            return true;
+        } catch (IOException e) {
+            server.disconnect(client);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.game.oop;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a {@link GameWorld} on its own thread at the world's fixed tick rate and publishes a {@link RenderFrame}
+ * after every batch of ticks. UI threads only feed the {@link InputQueue}, hand over resize requests and read
+ * frames from the {@link FrameExchange}, so a slow draw never delays the simulation and key changes reach the tick
+ * they happened in.
+ */
+final class SimulationLoop {
+    private final GameWorld world;
+    private final FrameExchange frames = new FrameExchange();
+    private final AtomicReference<double[]> pendingResize = new AtomicReference<>();
+    private final AtomicBoolean saveRequested = new AtomicBoolean();
+    private final AtomicBoolean loadRequested = new AtomicBoolean();
+    private double[] size;
+    private final InputQueue inputs = new InputQueue();
+    private final CheckpointFile.QuickSave quickSave = new CheckpointFile.QuickSave();
+    private volatile boolean running;
+    private Thread thread;
+
+    SimulationLoop(GameWorld world) {
+        this.world = world;
+    }
+
+    FrameExchange frames() {
+        return frames;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the loop and waits briefly for the thread to finish its current tick. */
+    void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Where the UI thread reports key presses and releases; it is the queue's only input side. */
+    InputQueue inputs() {
+        return inputs;
+    }
+
+    void requestResize(double width, double height) {
+        pendingResize.set(new double[]{width, height});
+    }
+
+    /** Quick-saves the world on the simulation thread before its next tick; see {@link CheckpointFile}. */
+    void requestQuickSave() {
+        saveRequested.set(true);
+        LockSupport.unpark(thread);
+    }
+
+    void requestQuickLoad() {
+        loadRequested.set(true);
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        long previous = System.nanoTime();
+        while (running) {
+            double[] resize = pendingResize.getAndSet(null);
+            if (resize != null) {
+                size = resize;
+                world.resize(resize[0], resize[1]);
+                publish(System.nanoTime());
+            }
+            if (saveRequested.getAndSet(false)) {
+                quickSave.save(world);
+            }
+            if (loadRequested.getAndSet(false) && quickSave.load(world)) {
+                if (size != null) {
+                    world.resize(size[0], size[1]);
+                }
+                publish(System.nanoTime());
+            }
+
+            long now = System.nanoTime();
+            int ticks = world.update((now - previous) / 1_000_000_000.0, inputs, now);
+            previous = now;
+            if (ticks > 0) {
+                publish(now);
+            }
+            LockSupport.parkNanos((long) (world.secondsUntilNextTick() * 1_000_000_000.0));
+        }
+    }
+
+    private void publish(long nowNanos) {
+        RenderFrame frame = frames.beginWrite();
+        world.writeFrame(frame);
+        frame.writtenAtNanos = nowNanos;
+        frames.publish();
+    }
+}
@@ -0,0 +1,122 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * What a multiplayer client is told about a world at one tick, quantised to ints so consecutive snapshots differ in
+ * few, small numbers. The state is split into sections (a header, then players, monsters, projectiles and doors);
+ * each section is a flat array with a fixed number of ints per entity, filled by {@link GameWorld#writeSnapshot}
+ * and delta-encoded section by section by {@link SnapshotCodec}.
+ */
+final class Snapshot {
+    static final int HEADER = 0;
+    static final int PLAYERS = 1;
+    static final int MONSTERS = 2;
+    static final int PROJECTILES = 3;
+    static final int DOORS = 4;
+    static final int SECTIONS = 5;
+
+    static final int TICK = 0;
+    static final int STAGE = 1;
+    static final int FLAGS = 2;
+    static final int LAYOUT_VERSION = 3;
+    static final int WIDTH = 4;
+    static final int HEIGHT = 5;
+    static final int DOOR_SIZE = 6;
+    /** Dungeon stages send the map's seed and size so clients generate the same tiles; zero columns means none. */
+    static final int MAP_SEED_HIGH = 7;
+    static final int MAP_SEED_LOW = 8;
+    static final int MAP_COLUMNS = 9;
+    static final int MAP_ROWS = 10;
+    private static final int HEADER_FIELDS = 11;
+
+    static final int FLAG_DEAD = 1;
+    /** Set on a monster whose ring is a warp telegraph; other rings are pulses. */
+    static final int FLAG_TELEGRAPHING = 1 << 4;
+    static final int KIND_MASK = FLAG_TELEGRAPHING - 1;
+
+    /**
+     * Ints per entity. Players: id, x, y, ticks of stun left, newest input sequence applied. Monsters: kind and
+     * flags, x, y, ring radius (0 for none), ring x, ring y. Projectiles: x, y. Doors: x, y, type.
+     */
+    static final int[] STRIDES = {HEADER_FIELDS, 5, 6, 2, 3};
+
+    /**
+     * Most entities a section of a server's snapshot can hold. Projectiles have no limit of their own, so they are
+     * held to what could fill a frame.
+     */
+    static final int[] MAX_COUNTS = {1, GameServer.MAX_PLAYERS, StageTable.MAX_MONSTERS,
+            NetProtocol.MAX_FRAME / STRIDES[PROJECTILES], StageTable.MAX_DOORS};
+
+    /** Positions travel in fractions of a pixel. */
+    static final double POSITION_SCALE = 8;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    int sequence;
+    final int[] counts = new int[SECTIONS];
+    final int[][] values = new int[SECTIONS][];
+
+    Snapshot() {
+        for (int s = 0; s < SECTIONS; s++) {
+            values[s] = new int[STRIDES[s] * INITIAL_CAPACITY];
+        }
+        counts[HEADER] = 1;
+    }
+
+    static int position(double value) {
+        return (int) Math.round(value * POSITION_SCALE);
+    }
+
+    static double toPixels(int value) {
+        return value / POSITION_SCALE;
+    }
+
+    int header(int field) {
+        return values[HEADER][field];
+    }
+
+    void clear() {
+        Arrays.fill(counts, 1, SECTIONS, 0);
+    }
+
+    /** Appends an entity to {@code section} and returns the index of its first int. */
+    int add(int section) {
+        int offset = counts[section]++ * STRIDES[section];
+        ensureLength(section, offset + STRIDES[section]);
+        return offset;
+    }
+
+    /** Makes room for {@code count} entities in {@code section}; their ints are left as they were. */
+    void resize(int section, int count) {
+        ensureLength(section, count * STRIDES[section]);
+        counts[section] = count;
+    }
+
+    void copyFrom(Snapshot other) {
+        sequence = other.sequence;
+        for (int s = 0; s < SECTIONS; s++) {
+            resize(s, other.counts[s]);
+            System.arraycopy(other.values[s], 0, values[s], 0, other.counts[s] * STRIDES[s]);
+        }
+    }
+
+    /** Hash of the counts and values, sent along with every snapshot so clients can check their decoding. */
+    int hash() {
+        int hash = 1;
+        for (int s = 0; s < SECTIONS; s++) {
+            hash = hash * 31 + counts[s];
+            int[] section = values[s];
+            for (int i = 0, n = counts[s] * STRIDES[s]; i < n; i++) {
+                hash = hash * 31 + section[i];
+            }
+        }
+        return hash;
+    }
+
+    private void ensureLength(int section, int length) {
+        if (values[section].length < length) {
+            values[section] = Arrays.copyOf(values[section], Math.max(length, values[section].length * 2));
+        }
+    }
+}
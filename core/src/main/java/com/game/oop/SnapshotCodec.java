@@ -0,0 +1,101 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Delta compression for {@link Snapshot}s. Each section is sent as its entity count followed by the difference of
+ * every int from the same position in the base snapshot (zero past the end of the base section). Runs of unchanged
+ * ints collapse into a single varint and the remaining differences are zigzag varints, so a quiet room costs a few
+ * bytes per section and a moving entity usually one or two bytes per coordinate. Without a base the same encoding
+ * against all zeros yields a full snapshot.
+ * <pre>
+ * SNAPSHOT  varint sequence, varint base sequence (0 = full), sections, int hash
+ * section   varint count, then until count * stride ints are covered:
+ *           varint run of unchanged ints, and while ints remain one zigzag varint difference
+ * </pre>
+ */
+final class SnapshotCodec {
+    private SnapshotCodec() {
+    }
+
+    /** Writes a complete SNAPSHOT frame of {@code current} relative to {@code base}, which may be null. */
+    static void encode(Snapshot current, Snapshot base, ByteBuffer out) {
+        int frame = NetProtocol.beginFrame(out, NetProtocol.SNAPSHOT);
+        NetProtocol.putVarInt(out, current.sequence);
+        NetProtocol.putVarInt(out, base == null ? 0 : base.sequence);
+        for (int s = 0; s < Snapshot.SECTIONS; s++) {
+            int[] values = current.values[s];
+            int[] baseValues = base == null ? null : base.values[s];
+            int baseLength = base == null ? 0 : base.counts[s] * Snapshot.STRIDES[s];
+            int length = current.counts[s] * Snapshot.STRIDES[s];
+            NetProtocol.putVarInt(out, current.counts[s]);
+            int i = 0;
+            while (i < length) {
+                int run = 0;
+                while (i < length && values[i] == (i < baseLength ? baseValues[i] : 0)) {
+                    run++;
+                    i++;
+                }
+                NetProtocol.putVarInt(out, run);
+                if (i < length) {
+                    NetProtocol.putVarInt(out, NetProtocol.zigzag(values[i] - (i < baseLength ? baseValues[i] : 0)));
+                    i++;
+                }
+            }
+        }
+        out.putInt(current.hash());
+        NetProtocol.endFrame(out, frame);
+    }
+
+    /**
+     * Reads the base sequence of the SNAPSHOT payload at the buffer's position (just past the tag) without
+     * consuming anything, so the caller can look up the base before {@link #decode}.
+     */
+    static int baseSequence(ByteBuffer in) throws IOException {
+        ByteBuffer peek = in.duplicate();
+        NetProtocol.getVarInt(peek);
+        return NetProtocol.getVarInt(peek);
+    }
+
+    /**
+     * Decodes a SNAPSHOT payload into {@code target} using {@code base}, which must be the snapshot named by the
+     * payload's base sequence (null for a full snapshot). Returns false if the result does not match the hash the
+     * server sent.
+     */
+    static boolean decode(ByteBuffer in, Snapshot base, Snapshot target) throws IOException {
+        target.sequence = NetProtocol.getVarInt(in);
+        int baseSequence = NetProtocol.getVarInt(in);
+        if ((baseSequence == 0) != (base == null) || (base != null && base.sequence != baseSequence)) {
+            throw new IOException("Snapshot " + target.sequence + " needs base " + baseSequence);
+        }
+        for (int s = 0; s < Snapshot.SECTIONS; s++) {
+            int count = NetProtocol.getVarInt(in);
+            // Runs cost a byte however long they are, so the count must be checked before sizing the section.
+            if (count < 0 || count > Snapshot.MAX_COUNTS[s]) {
+                throw new IOException("Bad entity count " + count + " in section " + s);
+            }
+            target.resize(s, count);
+            int[] values = target.values[s];
+            int[] baseValues = base == null ? null : base.values[s];
+            int baseLength = base == null ? 0 : base.counts[s] * Snapshot.STRIDES[s];
+            int length = count * Snapshot.STRIDES[s];
+            int i = 0;
+            while (i < length) {
+                int run = NetProtocol.getVarInt(in);
+                if (run < 0 || run > length - i) {
+                    throw new IOException("Bad run " + run);
+                }
+                for (int end = i + run; i < end; i++) {
+                    values[i] = i < baseLength ? baseValues[i] : 0;
+                }
+                if (i < length) {
+                    int delta = NetProtocol.unzigzag(NetProtocol.getVarInt(in));
+                    values[i] = (i < baseLength ? baseValues[i] : 0) + delta;
+                    i++;
+                }
+            }
+        }
+        return in.getInt() == target.hash();
+    }
+}
@@ -0,0 +1,144 @@
+package com.game.oop;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Uniform-grid broad phase over point entities identified by dense int ids (usually their list index).
+ * Every cell keeps an intrusive doubly linked list, so inserting, moving and removing an entity are O(1)
+ * and a query only walks the cells its box overlaps. Points outside the grid bounds are kept in the nearest
+ * edge cell so entities that drift slightly off-screen are still found. Worlds too large for
+ * {@link #MAX_CELLS} cells of the requested size get proportionally coarser cells, so the grid's memory does not
+ * grow with the size of a dungeon.
+ */
+final class SpatialGrid {
+    private static final int NONE = -1;
+    private static final int MAX_CELLS = 1 << 16;
+
+    private final double minCellSize;
+    private double cellSize;
+    private int columns = 1;
+    private int rows = 1;
+    private int[] heads = {NONE};
+    private int[] cellOf = new int[0];
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+
+    SpatialGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.minCellSize = cellSize;
+        this.cellSize = cellSize;
+    }
+
+    /** Resizes the grid to cover {@code width x height} and drops every entity. */
+    void reset(double width, double height) {
+        cellSize = Math.max(minCellSize, Math.sqrt(width * height / MAX_CELLS));
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        if (heads.length < columns * rows) {
+            heads = new int[columns * rows];
+        }
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(heads, 0, columns * rows, NONE);
+        Arrays.fill(cellOf, NONE);
+    }
+
+    void insert(int id, double x, double y) {
+        ensureCapacity(id + 1);
+        if (cellOf[id] != NONE) {
+            unlink(id);
+        }
+        link(id, cellIndex(x, y));
+    }
+
+    /** Updates an entity's position, touching the cell lists only when it crosses into another cell. */
+    void move(int id, double x, double y) {
+        int cell = cellIndex(x, y);
+        if (cellOf[id] != cell) {
+            unlink(id);
+            link(id, cell);
+        }
+    }
+
+    void remove(int id) {
+        if (id < cellOf.length && cellOf[id] != NONE) {
+            unlink(id);
+        }
+    }
+
+    /**
+     * Visits every entity whose cell overlaps the given box. The visitor returns {@code false} to stop early,
+     * in which case this method also returns {@code false}. Visitors must not modify the grid.
+     */
+    boolean query(double minX, double minY, double maxX, double maxY, IntPredicate visitor) {
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+        for (int row = firstRow; row <= lastRow; row++) {
+            int base = row * columns;
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int id = heads[base + column]; id != NONE; id = next[id]) {
+                    if (!visitor.test(id)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void link(int id, int cell) {
+        int head = heads[cell];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[cell] = id;
+        cellOf[id] = cell;
+    }
+
+    private void unlink(int id) {
+        int before = prev[id];
+        int after = next[id];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            heads[cellOf[id]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        cellOf[id] = NONE;
+    }
+
+    private int cellIndex(double x, double y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= cellOf.length) {
+            return;
+        }
+        int size = Math.max(capacity, Math.max(16, cellOf.length * 2));
+        int oldSize = cellOf.length;
+        cellOf = Arrays.copyOf(cellOf, size);
+        Arrays.fill(cellOf, oldSize, size, NONE);
+        next = Arrays.copyOf(next, size);
+        prev = Arrays.copyOf(prev, size);
+    }
+}
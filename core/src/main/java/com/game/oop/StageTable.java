@@ -0,0 +1,225 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Immutable stage definitions: how many stages there are, the door layout and which monsters each stage spawns,
+ * which stages are generated {@link TileMap} dungeons instead of a single open room, plus the
+ * {@link MonsterTuning} they spawn with. Parsed from a {@code .properties} file (see
+ * {@code assets/data/stages.properties}) into flat per-stage arrays; {@link #DEFAULTS} holds the built-in
+ * values used when no file is available.
+ */
+final class StageTable {
+    static final StageTable DEFAULTS = builtIn();
+    /** Most doors and monsters a stage may have. */
+    static final int MAX_DOORS = 10_000;
+    static final int MAX_MONSTERS = 100_000;
+
+    private final int stageCount;
+    private final double doorSize;
+    /** Indexed by stage number; slot 0 is unused. */
+    private final int[] doorCounts;
+    private final MonsterKind[] monsterKinds;
+    private final int[] monsterCounts;
+    /** Dungeon size in tiles, or 0 for an open stage the size of the window. */
+    private final int[] dungeonColumns;
+    private final int[] dungeonRows;
+    private final MonsterTuning tuning;
+
+    private StageTable(int stageCount, double doorSize, int[] doorCounts, MonsterKind[] monsterKinds,
+                       int[] monsterCounts, int[] dungeonColumns, int[] dungeonRows, MonsterTuning tuning) {
+        this.stageCount = stageCount;
+        this.doorSize = doorSize;
+        this.doorCounts = doorCounts;
+        this.monsterKinds = monsterKinds;
+        this.monsterCounts = monsterCounts;
+        this.dungeonColumns = dungeonColumns;
+        this.dungeonRows = dungeonRows;
+        this.tuning = tuning;
+    }
+
+    private static StageTable builtIn() {
+        MonsterKind[] kinds = {null, MonsterKind.WARP, MonsterKind.STUN, MonsterKind.SHOOTER,
+                MonsterKind.STUN, MonsterKind.WARP, MonsterKind.SHOOTER};
+        int[] doorCounts = {0, 6, 6, 6, 6, 6, 6};
+        int[] monsterCounts = {0, 1, 1, 1, 1, 1, 1};
+        return new StageTable(6, 30, doorCounts, kinds, monsterCounts, new int[7], new int[7], MonsterTuning.DEFAULTS);
+    }
+
+    static StageTable load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a stage file. Missing monster tuning falls back to the {@link MonsterKind} defaults; anything else
+     * missing or malformed is rejected with an {@link IllegalArgumentException} naming the key.
+     */
+    static StageTable parse(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        int stageCount = intValue(properties, "stage.count", 1, 1000);
+        double doorSize = doubleValue(properties, "door.size", 1, 500);
+        int defaultDoors = intValue(properties, "door.count", 1, MAX_DOORS);
+        int[] doorCounts = new int[stageCount + 1];
+        MonsterKind[] monsterKinds = new MonsterKind[stageCount + 1];
+        int[] monsterCounts = new int[stageCount + 1];
+        int[] dungeonColumns = new int[stageCount + 1];
+        int[] dungeonRows = new int[stageCount + 1];
+        for (int stage = 1; stage <= stageCount; stage++) {
+            String prefix = "stage." + stage + ".";
+            doorCounts[stage] = properties.containsKey(prefix + "doors")
+                    ? intValue(properties, prefix + "doors", 1, MAX_DOORS) : defaultDoors;
+            monsterKinds[stage] = kindValue(properties, prefix + "monster");
+            monsterCounts[stage] = properties.containsKey(prefix + "monsters")
+                    ? intValue(properties, prefix + "monsters", 0, MAX_MONSTERS) : 1;
+            if (properties.containsKey(prefix + "dungeon")) {
+                int[] size = sizeValue(properties, prefix + "dungeon", TileMap.MIN_CHUNKS * TileMap.CHUNK_SIZE,
+                        TileMap.MAX_SIDE);
+                dungeonColumns[stage] = size[0];
+                dungeonRows[stage] = size[1];
+            }
+        }
+
+        MonsterTuning tuning = MonsterTuning.DEFAULTS;
+        for (MonsterKind kind : MonsterKind.values()) {
+            String prefix = "monster." + kind.name() + ".";
+            if (properties.containsKey(prefix + "speed")) {
+                tuning = tuning.withSpeed(kind, doubleValue(properties, prefix + "speed", 0, 10_000));
+            }
+            if (properties.containsKey(prefix + "cooldown")) {
+                tuning = tuning.withSkillCooldown(kind, doubleValue(properties, prefix + "cooldown", 0.05, 3600));
+            }
+        }
+        return new StageTable(stageCount, doorSize, doorCounts, monsterKinds, monsterCounts, dungeonColumns,
+                dungeonRows, tuning);
+    }
+
+    /** This table as a stage file that {@link #parse} reads back into an identical table; replays store it so. */
+    String toProperties() {
+        StringBuilder out = new StringBuilder();
+        out.append("stage.count=").append(stageCount).append('\n');
+        out.append("door.size=").append(doorSize).append('\n');
+        out.append("door.count=").append(doorCounts[1]).append('\n');
+        for (int stage = 1; stage <= stageCount; stage++) {
+            String prefix = "stage." + stage + ".";
+            out.append(prefix).append("doors=").append(doorCounts[stage]).append('\n');
+            out.append(prefix).append("monster=").append(monsterKinds[stage].name()).append('\n');
+            out.append(prefix).append("monsters=").append(monsterCounts[stage]).append('\n');
+            if (dungeonColumns[stage] > 0) {
+                out.append(prefix).append("dungeon=").append(dungeonColumns[stage]).append('x')
+                        .append(dungeonRows[stage]).append('\n');
+            }
+        }
+        for (MonsterKind kind : MonsterKind.values()) {
+            String prefix = "monster." + kind.name() + ".";
+            out.append(prefix).append("speed=").append(tuning.speed(kind)).append('\n');
+            out.append(prefix).append("cooldown=").append(tuning.skillCooldown(kind)).append('\n');
+        }
+        return out.toString();
+    }
+
+    int stageCount() {
+        return stageCount;
+    }
+
+    double doorSize() {
+        return doorSize;
+    }
+
+    int doorCount(int stage) {
+        return doorCounts[clampStage(stage)];
+    }
+
+    MonsterKind monsterKind(int stage) {
+        return monsterKinds[clampStage(stage)];
+    }
+
+    int monsterCount(int stage) {
+        return monsterCounts[clampStage(stage)];
+    }
+
+    /** Width of the stage's dungeon in tiles, or 0 if the stage is an open room. */
+    int dungeonColumns(int stage) {
+        return dungeonColumns[clampStage(stage)];
+    }
+
+    int dungeonRows(int stage) {
+        return dungeonRows[clampStage(stage)];
+    }
+
+    MonsterTuning tuning() {
+        return tuning;
+    }
+
+    int clampStage(int stage) {
+        return Math.max(1, Math.min(stageCount, stage));
+    }
+
+    private static String value(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value.trim();
+    }
+
+    private static int intValue(Properties properties, String key, int min, int max) {
+        int value;
+        try {
+            value = Integer.parseInt(value(properties, key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a whole number: " + properties.getProperty(key));
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(key + " must be between " + min + " and " + max + ": " + value);
+        }
+        return value;
+    }
+
+    private static double doubleValue(Properties properties, String key, double min, double max) {
+        double value;
+        try {
+            value = Double.parseDouble(value(properties, key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + properties.getProperty(key));
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(key + " must be between " + min + " and " + max + ": " + value);
+        }
+        return value;
+    }
+
+    /** Parses {@code <columns>x<rows>}, each between {@code min} and {@code max}. */
+    private static int[] sizeValue(Properties properties, String key, int min, int max) {
+        String value = value(properties, key);
+        int separator = value.indexOf('x');
+        int columns;
+        int rows;
+        try {
+            columns = Integer.parseInt(value.substring(0, Math.max(0, separator)).trim());
+            rows = Integer.parseInt(value.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a size like 512x512: " + value);
+        }
+        if (columns < min || columns > max || rows < min || rows > max) {
+            throw new IllegalArgumentException(key + " sides must be between " + min + " and " + max + ": " + value);
+        }
+        return new int[]{columns, rows};
+    }
+
+    private static MonsterKind kindValue(Properties properties, String key) {
+        String value = value(properties, key);
+        try {
+            return MonsterKind.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(key + " is not a monster kind: " + value);
+        }
+    }
+}
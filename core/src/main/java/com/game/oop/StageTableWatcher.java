@@ -0,0 +1,120 @@
+package com.game.oop;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+/**
+ * Loads a stage file on a background thread and reloads it whenever it changes on disk, handing every table
+ * that parses cleanly to a listener. A file that fails to parse is logged and ignored, so a half-saved edit
+ * never replaces a working table. Nothing here runs on a frame or simulation thread.
+ */
+final class StageTableWatcher {
+    private static final System.Logger LOG = System.getLogger(StageTableWatcher.class.getName());
+    /** Editors often write a file in several steps; wait for them to settle before reparsing. */
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final Consumer<StageTable> listener;
+    private final Thread thread;
+    private volatile WatchService watchService;
+
+    private StageTableWatcher(Path file, Consumer<StageTable> listener) {
+        this.file = file.toAbsolutePath();
+        this.listener = listener;
+        this.thread = new Thread(this::run, "stage-table-watcher");
+        thread.setDaemon(true);
+    }
+
+    static StageTableWatcher start(Path file, Consumer<StageTable> listener) {
+        StageTableWatcher watcher = new StageTableWatcher(file, listener);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * The stage file to use: {@code -Ddungeon.stages=<file>} if given, otherwise {@code data/stages.properties}
+     * under the assets folder or the working directory, whichever exists. {@code null} means built-in defaults.
+     */
+    static Path locate() {
+        String configured = System.getProperty("dungeon.stages");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        Path[] candidates = {Path.of("assets", "data", "stages.properties"), Path.of("data", "stages.properties")};
+        for (Path candidate : candidates) {
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    void stop() {
+        thread.interrupt();
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.DEBUG, "Closing stage watch service failed", e);
+            }
+        }
+    }
+
+    private void run() {
+        load();
+        try (WatchService service = file.getFileSystem().newWatchService()) {
+            watchService = service;
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean changed = touchesFile(key);
+                key.reset();
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    drain(service);
+                    load();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Cannot watch " + file + "; hot reload is off", e);
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static void drain(WatchService service) {
+        WatchKey key;
+        while ((key = service.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private void load() {
+        try {
+            listener.accept(StageTable.load(file));
+            LOG.log(System.Logger.Level.INFO, "Loaded stage table from {0}", file);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.log(System.Logger.Level.WARNING, "Ignoring stage table " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.game.oop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Always-on instrumentation for one thread's share of the game loop. Callers chain {@link #lap} between phases,
+ * so each phase costs one clock read and one histogram increment. Once per {@link #REPORT_INTERVAL_NANOS} of
+ * wall-clock time the window is summarized into {@link #overlay()} text and JFR events, and every
+ * {@link #LOG_EVERY_REPORTS}th summary is also logged. Then the histograms start over.
+ * A profiler must only be driven by a single thread; {@link #overlay()} may be read from any thread.
+ */
+final class TickProfiler {
+    enum Phase {
+        PLAYER("player"),
+        MONSTERS("monsters"),
+        PROJECTILES("projectiles"),
+        DOORS("doors"),
+        RESPAWN("respawn"),
+        FRAME("write frame"),
+        DRAW("draw");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int LOG_EVERY_REPORTS = 30;
+    private static final System.Logger LOG = System.getLogger(TickProfiler.class.getName());
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String name;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private boolean enabled = true;
+    private long ticks;
+    private int monsters = -1;
+    private int projectiles;
+    private int doors;
+    private long windowStartNanos;
+    private long windowStartAllocated = -1;
+    private int reports;
+    private volatile String overlay = "";
+
+    TickProfiler(String name) {
+        this.name = name;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            overlay = "";
+        }
+    }
+
+    /** Clock reading to pass to the first {@link #lap}; {@code 0} while disabled. */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Records the time since {@code start} against {@code phase} and returns the clock for the next lap. */
+    long lap(Phase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    void entityCounts(int monsters, int projectiles, int doors) {
+        this.monsters = monsters;
+        this.projectiles = projectiles;
+        this.doors = doors;
+    }
+
+    /** Closes one pass through the loop and publishes a report once the current window is over. */
+    void endTick(long nowNanos) {
+        if (!enabled) {
+            return;
+        }
+        ticks++;
+        if (windowStartNanos == 0) {
+            windowStartNanos = nowNanos;
+            windowStartAllocated = allocatedBytes();
+            return;
+        }
+        long elapsed = nowNanos - windowStartNanos;
+        if (elapsed >= REPORT_INTERVAL_NANOS) {
+            report(elapsed);
+            windowStartNanos = nowNanos;
+        }
+    }
+
+    /** The latest summary, one line per phase, for an on-screen overlay. */
+    String overlay() {
+        return overlay;
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long allocated = allocatedBytes();
+        double allocationRate = windowStartAllocated < 0 || allocated < 0
+                ? -1 : (allocated - windowStartAllocated) / seconds;
+        windowStartAllocated = allocated;
+
+        StringBuilder text = new StringBuilder(256);
+        text.append(name).append(": ").append(Math.round(ticks / seconds)).append("/s");
+        if (monsters >= 0) {
+            text.append("  ").append(monsters).append(" monsters, ").append(projectiles).append(" shots, ")
+                    .append(doors).append(" doors");
+        }
+        if (allocationRate >= 0) {
+            text.append(String.format("  %.1f MB/s", allocationRate / (1024 * 1024)));
+        }
+
+        for (Phase phase : PHASES) {
+            LatencyHistogram histogram = histograms[phase.ordinal()];
+            if (histogram.count() == 0) {
+                continue;
+            }
+            long p50 = histogram.percentile(0.50);
+            long p99 = histogram.percentile(0.99);
+            text.append('\n').append(phase.label).append("  p50 ").append(formatNanos(p50))
+                    .append("  p99 ").append(formatNanos(p99)).append("  max ").append(formatNanos(histogram.max()));
+
+            PhaseEvent event = new PhaseEvent();
+            if (event.shouldCommit()) {
+                event.loop = name;
+                event.phase = phase.label;
+                event.samples = histogram.count();
+                event.p50 = p50;
+                event.p99 = p99;
+                event.max = histogram.max();
+                event.commit();
+            }
+            histogram.reset();
+        }
+
+        SummaryEvent summary = new SummaryEvent();
+        if (summary.shouldCommit()) {
+            summary.loop = name;
+            summary.ticksPerSecond = ticks / seconds;
+            summary.monsters = monsters;
+            summary.projectiles = projectiles;
+            summary.doors = doors;
+            summary.allocationRate = allocationRate;
+            summary.commit();
+        }
+
+        overlay = text.toString();
+        if (++reports % LOG_EVERY_REPORTS == 0) {
+            LOG.log(System.Logger.Level.INFO, () -> overlay.replace('\n', ';'));
+        }
+        ticks = 0;
+    }
+
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return -1;
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        }
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    @Name("com.game.oop.TickPhase")
+    @Label("Tick Phase")
+    @Category("Dungeon Escape")
+    @Description("Latency distribution of one game loop phase over a report window")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Loop")
+        String loop;
+        @Label("Phase")
+        String phase;
+        @Label("Samples")
+        long samples;
+        @Label("p50")
+        @Timespan(Timespan.NANOSECONDS)
+        long p50;
+        @Label("p99")
+        @Timespan(Timespan.NANOSECONDS)
+        long p99;
+        @Label("Max")
+        @Timespan(Timespan.NANOSECONDS)
+        long max;
+    }
+
+    @Name("com.game.oop.TickSummary")
+    @Label("Tick Summary")
+    @Category("Dungeon Escape")
+    @Description("Tick rate, entity counts and allocation rate of a game loop over a report window")
+    @StackTrace(false)
+    static final class SummaryEvent extends Event {
+        @Label("Loop")
+        String loop;
+        @Label("Ticks per Second")
+        double ticksPerSecond;
+        @Label("Monsters")
+        int monsters;
+        @Label("Projectiles")
+        int projectiles;
+        @Label("Doors")
+        int doors;
+        @Label("Allocation Rate (bytes/s)")
+        double allocationRate;
+    }
+}
@@ -0,0 +1,272 @@
+package com.game.oop;
+
+import java.util.Arrays;
+
+/**
+ * Procedural dungeon map of wall and floor tiles. The map is split into square chunks of {@link #CHUNK_SIZE}
+ * tiles; every chunk holds one room and is joined to its right and lower neighbours by L-shaped corridors, so
+ * all rooms are reachable. A chunk's room and corridors are derived from the seed and the chunk's coordinates
+ * alone, so any chunk can be generated on its own, in any order. Chunks are generated on first access into a
+ * fixed ring of {@link #RESIDENT_CHUNKS} x {@link #RESIDENT_CHUNKS} byte arrays indexed by chunk coordinates
+ * modulo the ring size, which keeps every chunk around the player resident and makes memory independent of the
+ * map size. Not thread-safe; only the simulation thread touches it.
+ */
+final class TileMap {
+    static final byte WALL = 0;
+    static final byte FLOOR = 1;
+    static final double TILE_SIZE = 32;
+    static final int CHUNK_SIZE = 32;
+    /** Maps must be at least this many chunks across so there is always a room next to the start room. */
+    static final int MIN_CHUNKS = 3;
+    /** Most tiles a map may have along either side. */
+    static final int MAX_SIDE = 65_536;
+    /**
+     * How many chunks from a player's chunk, in each direction, monsters and projectiles stay active; farther ones
+     * are dormant. The five by five chunks around a player fit the resident ring without evicting one another and
+     * cover any view up to 4096 pixels across.
+     */
+    static final int ACTIVE_RADIUS = 2;
+
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int RESIDENT_CHUNKS = 16;
+    private static final int RESIDENT_MASK = RESIDENT_CHUNKS - 1;
+    private static final int MIN_ROOM = 8;
+    private static final int ROOM_RANGE = 15;
+    private static final int CORRIDOR_WIDTH = 2;
+
+    private final long[] residentKeys = new long[RESIDENT_CHUNKS * RESIDENT_CHUNKS];
+    private final byte[][] residentTiles = new byte[RESIDENT_CHUNKS * RESIDENT_CHUNKS][];
+    private long seed;
+    private int chunkColumns;
+    private int chunkRows;
+    private long generated;
+
+    TileMap() {
+        Arrays.fill(residentKeys, -1);
+    }
+
+    /** Switches to a new map of at least {@code columns x rows} tiles, rounded up to whole chunks. */
+    void reset(long seed, int columns, int rows) {
+        this.seed = seed;
+        chunkColumns = Math.max(MIN_CHUNKS, (columns + CHUNK_MASK) >> CHUNK_SHIFT);
+        chunkRows = Math.max(MIN_CHUNKS, (rows + CHUNK_MASK) >> CHUNK_SHIFT);
+        Arrays.fill(residentKeys, -1);
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    int columns() {
+        return chunkColumns * CHUNK_SIZE;
+    }
+
+    int rows() {
+        return chunkRows * CHUNK_SIZE;
+    }
+
+    /** The chunk column or row that the pixel coordinate {@code pixels} lies in. */
+    static int chunkAt(double pixels) {
+        return (int) Math.floor(pixels / (CHUNK_SIZE * TILE_SIZE));
+    }
+
+    /** The pixel coordinate where chunk column or row {@code chunk} begins. */
+    static double chunkEdge(int chunk) {
+        return chunk * (CHUNK_SIZE * TILE_SIZE);
+    }
+
+    int chunkColumns() {
+        return chunkColumns;
+    }
+
+    int chunkRows() {
+        return chunkRows;
+    }
+
+    double pixelWidth() {
+        return columns() * TILE_SIZE;
+    }
+
+    double pixelHeight() {
+        return rows() * TILE_SIZE;
+    }
+
+    /** Chunks generated so far, counting regenerations of chunks that were evicted from the ring. */
+    long generatedChunks() {
+        return generated;
+    }
+
+    /** The tile at the given tile coordinates; everything outside the map is wall. */
+    byte tile(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns() || row >= rows()) {
+            return WALL;
+        }
+        byte[] tiles = chunk(column >> CHUNK_SHIFT, row >> CHUNK_SHIFT);
+        return tiles[((row & CHUNK_MASK) << CHUNK_SHIFT) | (column & CHUNK_MASK)];
+    }
+
+    /** Whether any wall tile overlaps the box, given in pixels. */
+    boolean blocks(double x, double y, double width, double height) {
+        int lastColumn = (int) Math.floor((x + width) / TILE_SIZE);
+        int lastRow = (int) Math.floor((y + height) / TILE_SIZE);
+        for (int row = (int) Math.floor(y / TILE_SIZE); row <= lastRow; row++) {
+            for (int column = (int) Math.floor(x / TILE_SIZE); column <= lastColumn; column++) {
+                if (tile(column, row) == WALL) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean isWallAt(double x, double y) {
+        return tile((int) Math.floor(x / TILE_SIZE), (int) Math.floor(y / TILE_SIZE)) == WALL;
+    }
+
+    /**
+     * Copies the {@code columns x rows} tiles starting at {@code (column, row)} into {@code target} row by row,
+     * one array copy per chunk a row crosses. The region must lie inside the map.
+     */
+    void copyRegion(int column, int row, int columns, int rows, byte[] target) {
+        for (int r = 0; r < rows; r++) {
+            int tileRow = row + r;
+            int offset = (tileRow & CHUNK_MASK) << CHUNK_SHIFT;
+            int c = 0;
+            while (c < columns) {
+                int tileColumn = column + c;
+                int run = Math.min(columns - c, CHUNK_SIZE - (tileColumn & CHUNK_MASK));
+                byte[] tiles = chunk(tileColumn >> CHUNK_SHIFT, tileRow >> CHUNK_SHIFT);
+                System.arraycopy(tiles, offset | (tileColumn & CHUNK_MASK), target, r * columns + c, run);
+                c += run;
+            }
+        }
+    }
+
+    /** Centre of the room in chunk {@code (chunkX, chunkY)}, in pixels. */
+    double roomCenterX(int chunkX, int chunkY) {
+        long room = room(chunkX, chunkY);
+        return (chunkX * CHUNK_SIZE + roomLeft(room) + roomWidth(room) / 2.0) * TILE_SIZE;
+    }
+
+    double roomCenterY(int chunkX, int chunkY) {
+        long room = room(chunkX, chunkY);
+        return (chunkY * CHUNK_SIZE + roomTop(room) + roomHeight(room) / 2.0) * TILE_SIZE;
+    }
+
+    /** Width of the room in chunk {@code (chunkX, chunkY)}, in pixels. */
+    double roomWidth(int chunkX, int chunkY) {
+        return roomWidth(room(chunkX, chunkY)) * TILE_SIZE;
+    }
+
+    double roomHeight(int chunkX, int chunkY) {
+        return roomHeight(room(chunkX, chunkY)) * TILE_SIZE;
+    }
+
+    private byte[] chunk(int chunkX, int chunkY) {
+        int slot = ((chunkY & RESIDENT_MASK) << 4) | (chunkX & RESIDENT_MASK);
+        long key = ((long) chunkY << 32) | chunkX;
+        byte[] tiles = residentTiles[slot];
+        if (residentKeys[slot] != key) {
+            if (tiles == null) {
+                tiles = new byte[CHUNK_SIZE * CHUNK_SIZE];
+                residentTiles[slot] = tiles;
+            }
+            generate(chunkX, chunkY, tiles);
+            residentKeys[slot] = key;
+        }
+        return tiles;
+    }
+
+    private void generate(int chunkX, int chunkY, byte[] tiles) {
+        generated++;
+        Arrays.fill(tiles, WALL);
+        long room = room(chunkX, chunkY);
+        carve(tiles, roomLeft(room), roomTop(room), roomLeft(room) + roomWidth(room),
+                roomTop(room) + roomHeight(room));
+        int originX = chunkX * CHUNK_SIZE;
+        int originY = chunkY * CHUNK_SIZE;
+        if (chunkX > 0) {
+            carveCorridor(tiles, originX, originY, chunkX - 1, chunkY, chunkX, chunkY);
+        }
+        if (chunkX + 1 < chunkColumns) {
+            carveCorridor(tiles, originX, originY, chunkX, chunkY, chunkX + 1, chunkY);
+        }
+        if (chunkY > 0) {
+            carveCorridor(tiles, originX, originY, chunkX, chunkY - 1, chunkX, chunkY);
+        }
+        if (chunkY + 1 < chunkRows) {
+            carveCorridor(tiles, originX, originY, chunkX, chunkY, chunkX, chunkY + 1);
+        }
+    }
+
+    /**
+     * Carves the part of the corridor between two neighbouring rooms that falls inside the chunk at
+     * {@code (originX, originY)}. The corridor leaves the first room along its centre row (or column) and turns
+     * into the second room along the second room's centre column (or row), so it never leaves the two chunks.
+     */
+    private void carveCorridor(byte[] tiles, int originX, int originY, int fromX, int fromY, int toX, int toY) {
+        long from = room(fromX, fromY);
+        long to = room(toX, toY);
+        int fromColumn = fromX * CHUNK_SIZE + roomLeft(from) + roomWidth(from) / 2 - originX;
+        int fromRow = fromY * CHUNK_SIZE + roomTop(from) + roomHeight(from) / 2 - originY;
+        int toColumn = toX * CHUNK_SIZE + roomLeft(to) + roomWidth(to) / 2 - originX;
+        int toRow = toY * CHUNK_SIZE + roomTop(to) + roomHeight(to) / 2 - originY;
+        if (fromY == toY) {
+            carve(tiles, fromColumn, fromRow, toColumn + CORRIDOR_WIDTH, fromRow + CORRIDOR_WIDTH);
+            carve(tiles, toColumn, Math.min(fromRow, toRow), toColumn + CORRIDOR_WIDTH,
+                    Math.max(fromRow, toRow) + CORRIDOR_WIDTH);
+        } else {
+            carve(tiles, fromColumn, fromRow, fromColumn + CORRIDOR_WIDTH, toRow + CORRIDOR_WIDTH);
+            carve(tiles, Math.min(fromColumn, toColumn), toRow, Math.max(fromColumn, toColumn) + CORRIDOR_WIDTH,
+                    toRow + CORRIDOR_WIDTH);
+        }
+    }
+
+    /** Sets the tiles in {@code [left, right) x [top, bottom)}, in chunk-local coordinates, to floor. */
+    private static void carve(byte[] tiles, int left, int top, int right, int bottom) {
+        int fromColumn = Math.max(0, left);
+        int toColumn = Math.min(CHUNK_SIZE, right);
+        for (int row = Math.max(0, top); row < Math.min(CHUNK_SIZE, bottom); row++) {
+            if (fromColumn < toColumn) {
+                Arrays.fill(tiles, (row << CHUNK_SHIFT) + fromColumn, (row << CHUNK_SHIFT) + toColumn, FLOOR);
+            }
+        }
+    }
+
+    /**
+     * The room of a chunk packed into a long: left, top, width and height in tiles, one byte each. Rooms keep a
+     * wall tile to every chunk edge, so neighbouring rooms only ever meet through corridors.
+     */
+    private long room(int chunkX, int chunkY) {
+        long hash = scramble(seed ^ scramble(((long) chunkY << 32) | chunkX));
+        int width = MIN_ROOM + (int) ((hash & 0xFFFF) % ROOM_RANGE);
+        int height = MIN_ROOM + (int) (((hash >>> 16) & 0xFFFF) % ROOM_RANGE);
+        int left = 1 + (int) (((hash >>> 32) & 0xFFFF) % (CHUNK_SIZE - 1 - width));
+        int top = 1 + (int) (((hash >>> 48) & 0xFFFF) % (CHUNK_SIZE - 1 - height));
+        return left | (long) top << 8 | (long) width << 16 | (long) height << 24;
+    }
+
+    /** SplitMix64's finaliser: every input bit affects every output bit. */
+    private static long scramble(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int roomLeft(long room) {
+        return (int) (room & 0xFF);
+    }
+
+    private static int roomTop(long room) {
+        return (int) ((room >>> 8) & 0xFF);
+    }
+
+    private static int roomWidth(long room) {
+        return (int) ((room >>> 16) & 0xFF);
+    }
+
+    private static int roomHeight(long room) {
+        return (int) ((room >>> 24) & 0xFF);
+    }
+}
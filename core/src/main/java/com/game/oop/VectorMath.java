@@ -0,0 +1,34 @@
+package com.game.oop;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API versions of {@link GameMath}'s batched kernels. Only loaded when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise {@link GameMath} runs its scalar loops and this class is
+ * never touched. Both versions give identical results.
+ */
+final class VectorMath {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorMath() {
+    }
+
+    static int clearInsideBox(double[] xs, double[] ys, boolean[] flags, int count,
+                              double minX, double minY, double maxX, double maxY) {
+        int set = 0;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, ys, i);
+            VectorMask<Double> inside = x.compare(VectorOperators.GE, minX).and(x.compare(VectorOperators.LT, maxX))
+                    .and(y.compare(VectorOperators.GE, minY)).and(y.compare(VectorOperators.LT, maxY));
+            VectorMask<Double> kept = VectorMask.fromArray(SPECIES, flags, i).andNot(inside);
+            kept.intoArray(flags, i);
+            set += kept.trueCount();
+        }
+        return set + GameMath.clearInsideBoxScalar(xs, ys, flags, i, count, minX, minY, maxX, maxY);
+    }
+}
@@ -0,0 +1,51 @@
+package com.game.oop;
+
+final class WarpSystem {
+    private static final double TELEGRAPH_TIME = 0.6;
+    private static final double WARP_OFFSET = 140;
+
+    private WarpSystem() {
+    }
+
+    /**
+     * Runs the warp cycle. After the wind-up a target ring is telegraphed near the nearest player, and once it has
+     * been shown for {@link #TELEGRAPH_TIME} the monster jumps onto it.
+     */
+    static void run(GameWorld world, MonsterStore monsters, int from, int to, double now) {
+        int[] members = monsters.members(MonsterStore.WARP);
+        int end = monsters.firstMember(MonsterStore.WARP, to);
+        for (int m = monsters.firstMember(MonsterStore.WARP, from); m < end; m++) {
+            int i = members[m];
+            if (monsters.dormant[i]) {
+                continue;
+            }
+            if (monsters.phase[i] == MonsterStore.TELEGRAPHING) {
+                monsters.busy[i] = true;
+                if (now - monsters.phaseStartedAt[i] >= TELEGRAPH_TIME) {
+                    monsters.teleport(i, monsters.targetX[i], monsters.targetY[i]);
+                    monsters.phase[i] = MonsterStore.IDLE;
+                    monsters.lastSkillTime[i] = now;
+                }
+                continue;
+            }
+            if (monsters.stepSkillCycle(i, now, monsters.skillCooldown[i])) {
+                Player player = world.nearestPlayer(monsters.x[i], monsters.y[i]);
+                double px = player.centerX();
+                double py = player.centerY();
+                double offsetX = (monsters.nextRandom(i) * 2 - 1) * WARP_OFFSET;
+                double offsetY = (monsters.nextRandom(i) * 2 - 1) * WARP_OFFSET;
+                monsters.targetX[i] = GameMath.clamp(px + offsetX, 40, world.getWidth() - 40);
+                monsters.targetY[i] = GameMath.clamp(py + offsetY, 40, world.getHeight() - 40);
+                monsters.phase[i] = MonsterStore.TELEGRAPHING;
+                monsters.phaseStartedAt[i] = now;
+            }
+        }
+    }
+
+    /** Radius of the warp target ring, growing while the telegraph runs. */
+    static double telegraphRadius(MonsterStore monsters, int i, double now) {
+        double elapsed = now - monsters.phaseStartedAt[i];
+        double progress = Math.min(1.0, Math.max(0, elapsed / TELEGRAPH_TIME));
+        return 18 + 40 * progress;
+    }
+}
@@ -0,0 +1,41 @@
+package com.game.oop;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The world's layout and spawn generator: the SplitMix64 stream of {@code new SplittableRandom(seed)}, draw for
+ * draw, but with its state readable so a checkpoint can resume it. Bounded ints and doubles come from the
+ * {@link RandomGenerator} defaults, which {@link java.util.SplittableRandom} uses as well.
+ */
+final class WorldRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    WorldRandom(long seed) {
+        this.state = seed;
+    }
+
+    long state() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+}
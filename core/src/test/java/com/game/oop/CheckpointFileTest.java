@@ -0,0 +1,187 @@
+package com.game.oop;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointFileTest {
+    private static final int FILE_HEADER = 16;
+    private static final int SLOT_HEADER = 16;
+    private static final int COUNTS = Checkpoint.HEADER_BYTES - 4 * Integer.BYTES;
+    private static final int VIEW_WIDTH = 3 * Long.BYTES + Double.BYTES;
+    private static final int STAGE = 3 * Long.BYTES + 12 * Double.BYTES;
+    private static final int FLAGS = STAGE + 3 * Integer.BYTES;
+    private static final int MAP_COLUMNS = STAGE + 4 * Integer.BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void emptyFileHoldsNoCheckpoint() throws IOException {
+        assertFalse(CheckpointFile.open(dir.resolve("room.dckp")).load(newWorld(1)));
+    }
+
+    @Test
+    void loadedWorldCarriesOnExactlyLikeTheSavedOne() throws IOException {
+        Path path = dir.resolve("room.dckp");
+        GameWorld saved = newWorld(1);
+        play(saved, 300, 1);
+        CheckpointFile.open(path).save(saved, true);
+
+        GameWorld loaded = newWorld(2);
+        assertTrue(CheckpointFile.open(path).load(loaded));
+        assertArrayEquals(checkpointOf(saved), checkpointOf(loaded));
+        play(saved, 300, 2);
+        play(loaded, 300, 2);
+        assertEquals(saved.checksum(), loaded.checksum());
+    }
+
+    @Test
+    void tornNewestSlotFallsBackToThePreviousSave() throws IOException {
+        Path path = dir.resolve("room.dckp");
+        GameWorld world = newWorld(1);
+        CheckpointFile file = CheckpointFile.open(path);
+        play(world, 120, 3);
+        file.save(world, false);
+        byte[] previous = checkpointOf(world);
+        play(world, 120, 4);
+        file.save(world, false);
+
+        // The second save went to slot 0; a crash halfway through its payload leaves its CRC wrong.
+        corrupt(path, FILE_HEADER + SLOT_HEADER + Checkpoint.HEADER_BYTES);
+        GameWorld loaded = newWorld(2);
+        assertTrue(CheckpointFile.open(path).load(loaded));
+        assertArrayEquals(previous, checkpointOf(loaded));
+    }
+
+    @Test
+    void saveAfterReopeningATornFileKeepsTheIntactSlot() throws IOException {
+        Path path = dir.resolve("room.dckp");
+        GameWorld world = newWorld(1);
+        CheckpointFile file = CheckpointFile.open(path);
+        play(world, 120, 3);
+        file.save(world, false);
+        byte[] intact = checkpointOf(world);
+        play(world, 120, 4);
+        file.save(world, false);
+        corrupt(path, newestSlot(path) + SLOT_HEADER + Checkpoint.HEADER_BYTES);
+
+        // The next save must replace the torn slot; torn in turn, the first save is still there.
+        play(world, 120, 5);
+        CheckpointFile.open(path).save(world, false);
+        corrupt(path, newestSlot(path) + SLOT_HEADER + Checkpoint.HEADER_BYTES);
+        GameWorld loaded = newWorld(2);
+        assertTrue(CheckpointFile.open(path).load(loaded));
+        assertArrayEquals(intact, checkpointOf(loaded));
+    }
+
+    @Test
+    void noIntactSlotIsAnError() throws IOException {
+        Path path = dir.resolve("room.dckp");
+        GameWorld world = newWorld(1);
+        CheckpointFile file = CheckpointFile.open(path);
+        file.save(world, false);
+        file.save(world, false);
+        int capacity = readInt(path, 8);
+        corrupt(path, FILE_HEADER + SLOT_HEADER);
+        corrupt(path, FILE_HEADER + capacity + SLOT_HEADER);
+
+        assertThrows(IOException.class, () -> CheckpointFile.open(path).load(newWorld(2)));
+    }
+
+    @Test
+    void rejectedCheckpointLeavesTheWorldAsItWas() {
+        GameWorld source = newWorld(1);
+        play(source, 120, 5);
+        GameWorld target = newWorld(2);
+        play(target, 60, 6);
+        byte[] before = checkpointOf(target);
+
+        assertRejected(source, target, in -> in.putInt(COUNTS + 8, Integer.MAX_VALUE / 4));
+        assertRejected(source, target, in -> in.putInt(COUNTS, Integer.MAX_VALUE));
+        assertRejected(source, target, in -> in.putDouble(VIEW_WIDTH, Double.NaN));
+        assertRejected(source, target, in -> in.putDouble(VIEW_WIDTH, -1));
+        assertRejected(source, target, in -> in.putInt(FLAGS, Checkpoint.FLAG_DUNGEON).putInt(MAP_COLUMNS, 1));
+        assertRejected(source, target, in -> in.put(Checkpoint.HEADER_BYTES + Checkpoint.PLAYER_BYTES
+                + source.getDoors().size() * Checkpoint.DOOR_BYTES, (byte) 99));
+        assertArrayEquals(before, checkpointOf(target));
+    }
+
+    @Test
+    void stageBeyondTheTableIsClamped() {
+        ByteBuffer checkpoint = ByteBuffer.wrap(checkpointOf(newWorld(1))).order(Checkpoint.ORDER);
+        checkpoint.putInt(STAGE, 999);
+        GameWorld world = newWorld(2);
+        world.readCheckpoint(checkpoint);
+        assertEquals(world.getStageTable().stageCount(), world.getStage());
+    }
+
+    private static void assertRejected(GameWorld source, GameWorld target, Consumer<ByteBuffer> damage) {
+        ByteBuffer checkpoint = ByteBuffer.wrap(checkpointOf(source)).order(Checkpoint.ORDER);
+        damage.accept(checkpoint);
+        assertThrows(IllegalArgumentException.class, () -> target.readCheckpoint(checkpoint));
+    }
+
+    private static GameWorld newWorld(long seed) {
+        return new GameWorld(960, 640, GameWorld.DEFAULT_TICK_RATE, seed);
+    }
+
+    private static void play(GameWorld world, int ticks, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int mask = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (random.nextInt(10) == 0) {
+                mask = random.nextInt(InputMask.COMBINATIONS);
+            }
+            world.tick(InputMask.toSet(mask));
+        }
+    }
+
+    private static byte[] checkpointOf(GameWorld world) {
+        ByteBuffer out = ByteBuffer.allocate(world.checkpointSize()).order(Checkpoint.ORDER);
+        world.writeCheckpoint(out);
+        return out.array();
+    }
+
+    private static int readInt(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer value = ByteBuffer.allocate(Integer.BYTES).order(Checkpoint.ORDER);
+            channel.read(value, position);
+            return value.flip().getInt();
+        }
+    }
+
+    /** Offset of the slot stamped with the higher generation, torn or not. */
+    private static int newestSlot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int capacity = readInt(path, 8);
+            ByteBuffer generations = ByteBuffer.allocate(Long.BYTES).order(Checkpoint.ORDER);
+            channel.read(generations, FILE_HEADER);
+            long first = generations.flip().getLong();
+            channel.read(generations.clear(), FILE_HEADER + capacity);
+            return first > generations.flip().getLong() ? FILE_HEADER : FILE_HEADER + capacity;
+        }
+    }
+
+    private static void corrupt(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0));
+            channel.write(value.rewind(), position);
+        }
+    }
+}
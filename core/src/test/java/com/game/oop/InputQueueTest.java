@@ -0,0 +1,98 @@
+package com.game.oop;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InputQueueTest {
+    private static final int UP = 1 << GameWorld.Input.UP.ordinal();
+    private static final int LEFT = 1 << GameWorld.Input.LEFT.ordinal();
+    private static final int RIGHT = 1 << GameWorld.Input.RIGHT.ordinal();
+
+    @Test
+    void ringWrapsAroundWithoutLosingChanges() {
+        InputQueue queue = new InputQueue(4);
+        for (int i = 1; i <= 1000; i++) {
+            int mask = i % InputMask.COMBINATIONS;
+            queue.hold(mask, i);
+            queue.takeUntil(i);
+            assertEquals(mask, queue.held());
+        }
+        assertEquals(0, queue.dropped());
+    }
+
+    @Test
+    void overflowIsCountedAndResyncsToWhatIsHeld() {
+        InputQueue queue = new InputQueue(4);
+        for (int i = 0; i < 5; i++) {
+            queue.press(GameWorld.Input.UP, 2 * i);
+            queue.release(GameWorld.Input.UP, 2 * i + 1);
+        }
+        queue.press(GameWorld.Input.RIGHT, 10);
+        assertEquals(7, queue.dropped());
+
+        // The four queued changes end with UP released; the dropped ones ended with RIGHT held.
+        assertEquals(UP | RIGHT, queue.takeUntil(100));
+        assertEquals(RIGHT, queue.held());
+        queue.release(GameWorld.Input.RIGHT, 200);
+        assertEquals(RIGHT, queue.takeUntil(300));
+        assertEquals(0, queue.held());
+    }
+
+    @Test
+    void tapWithinOneTickCountsForThatTick() {
+        InputQueue queue = new InputQueue();
+        queue.press(GameWorld.Input.UP, 10);
+        queue.release(GameWorld.Input.UP, 20);
+        assertEquals(UP, queue.takeUntil(100));
+        assertEquals(0, queue.held());
+        assertEquals(0, queue.takeUntil(200));
+    }
+
+    @Test
+    void changesAfterTheTickWaitForTheNextOne() {
+        InputQueue queue = new InputQueue();
+        queue.press(GameWorld.Input.LEFT, 150);
+        assertEquals(0, queue.takeUntil(100));
+        assertEquals(LEFT, queue.takeUntil(200));
+        assertEquals(LEFT, queue.takeUntil(300));
+    }
+
+    @Test
+    void inputStaysHeldUntilEveryKeyMappedToItIsUp() {
+        InputQueue queue = new InputQueue();
+        queue.press(GameWorld.Input.UP, 10);
+        queue.press(GameWorld.Input.UP, 20);
+        queue.release(GameWorld.Input.UP, 30);
+        queue.takeUntil(100);
+        assertEquals(UP, queue.held());
+        queue.release(GameWorld.Input.UP, 110);
+        queue.takeUntil(200);
+        assertEquals(0, queue.held());
+    }
+
+    @Test
+    void releaseAllLetsGoOfEveryKey() {
+        InputQueue queue = new InputQueue();
+        queue.press(GameWorld.Input.UP, 10);
+        queue.press(GameWorld.Input.LEFT, 20);
+        queue.press(GameWorld.Input.LEFT, 30);
+        queue.releaseAll(40);
+        // Releases that went elsewhere while unfocused must not count against keys pressed afterwards.
+        queue.release(GameWorld.Input.LEFT, 50);
+        queue.press(GameWorld.Input.LEFT, 60);
+        queue.takeUntil(100);
+        assertEquals(LEFT, queue.held());
+    }
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        InputQueue queue = new InputQueue(3);
+        for (int i = 0; i < 5; i++) {
+            queue.hold(i % 2 == 0 ? UP : 0, i);
+        }
+        assertEquals(1, queue.dropped());
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(0));
+    }
+}
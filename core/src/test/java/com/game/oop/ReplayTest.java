@@ -0,0 +1,116 @@
+package com.game.oop;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+    private static final int TICKS = 600;
+
+    @Test
+    void recordedSessionReplaysToTheSameChecksum() throws IOException {
+        GameWorld world = newWorld();
+        ReplayRecorder recorder = ReplayRecorder.attach(world);
+        play(world, TICKS / 2, 1);
+        world.resize(800, 600);
+        play(world, TICKS / 2, 2);
+
+        Replay.Result result = replay(recorder);
+        assertEquals(TICKS, result.ticks);
+        assertEquals(world.checksum(), result.actualChecksum);
+        assertTrue(result.matches());
+    }
+
+    @Test
+    void stageTableReloadsAreReplayed() throws IOException {
+        GameWorld world = newWorld();
+        ReplayRecorder recorder = ReplayRecorder.attach(world);
+        // Even a reload that changes nothing lays the stage out again and draws from the world's random stream.
+        world.offerStageTable(StageTable.DEFAULTS);
+        play(world, TICKS / 2, 3);
+        world.offerStageTable(StageTable.parse(new StringReader(
+                StageTable.DEFAULTS.toProperties().replace("stage.1.monsters=1", "stage.1.monsters=5"))));
+        play(world, TICKS / 2, 4);
+
+        assertTrue(replay(recorder).matches());
+    }
+
+    @Test
+    void sessionWithTheStageWatcherRunningReplays() throws IOException, InterruptedException {
+        // As the front ends start up: the watcher loads the shipped stage file on its own thread while ticks run.
+        Path stageFile = StageTableWatcher.locate();
+        assertNotNull(stageFile, "run from the project root so assets/data/stages.properties is found");
+        GameWorld world = newWorld();
+        ReplayRecorder recorder = ReplayRecorder.attach(world);
+        StageTableWatcher watcher = StageTableWatcher.start(stageFile, world::offerStageTable);
+        try {
+            SplittableRandom random = new SplittableRandom(5);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (world.getStageTable() == StageTable.DEFAULTS && System.nanoTime() < deadline) {
+                world.tick(InputMask.toSet(random.nextInt(InputMask.COMBINATIONS)));
+                Thread.sleep(1);
+            }
+            assertFalse(world.getStageTable() == StageTable.DEFAULTS, "the watcher never delivered the stage file");
+            play(world, TICKS, 6);
+        } finally {
+            watcher.stop();
+        }
+
+        assertTrue(replay(recorder).matches());
+    }
+
+    @Test
+    void stageTableSurvivesItsPropertiesForm() throws IOException {
+        StageTable table = StageTable.parse(new StringReader(StageTable.DEFAULTS.toProperties()
+                .replace("stage.6.monsters=1", "stage.6.monsters=40\nstage.6.dungeon=256x128")));
+        assertEquals(table.toProperties(), StageTable.parse(new StringReader(table.toProperties())).toProperties());
+        assertEquals(256, table.dungeonColumns(6));
+        assertEquals(40, table.monsterCount(6));
+    }
+
+    @Test
+    void alteredChecksumIsReportedAsMismatch() throws IOException {
+        GameWorld world = newWorld();
+        ReplayRecorder recorder = ReplayRecorder.attach(world);
+        play(world, 60, 7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        bytes[bytes.length - 1] ^= 1;
+
+        assertFalse(Replay.read(new ByteArrayInputStream(bytes)).play().matches());
+    }
+
+    private static GameWorld newWorld() {
+        return new GameWorld(960, 640, GameWorld.DEFAULT_TICK_RATE, 1234);
+    }
+
+    /** Ticks with random inputs held for a few ticks at a time, like a player would. */
+    private static void play(GameWorld world, int ticks, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int mask = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (random.nextInt(10) == 0) {
+                mask = random.nextInt(InputMask.COMBINATIONS);
+            }
+            world.tick(InputMask.toSet(mask));
+        }
+    }
+
+    private static Replay.Result replay(ReplayRecorder recorder) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        return Replay.read(new ByteArrayInputStream(out.toByteArray())).play();
+    }
+}
@@ -0,0 +1,125 @@
+package com.game.oop;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCodecTest {
+    @Test
+    void fullSnapshotRoundTrips() throws IOException {
+        Snapshot current = snapshotAfter(30, 1);
+        Snapshot decoded = new Snapshot();
+        assertTrue(SnapshotCodec.decode(payload(current, null), null, decoded));
+        assertSnapshotsEqual(current, decoded);
+    }
+
+    @Test
+    void deltaAgainstPreviousSnapshotRoundTrips() throws IOException {
+        Snapshot base = snapshotAfter(30, 1);
+        Snapshot current = snapshotAfter(31, 2);
+        Snapshot decoded = new Snapshot();
+        assertTrue(SnapshotCodec.decode(payload(current, base), base, decoded));
+        assertSnapshotsEqual(current, decoded);
+    }
+
+    @Test
+    void deltaAgainstStaleBaseRoundTrips() throws IOException {
+        // The server deltas against the newest snapshot the client acknowledged, which may be many ticks old and
+        // hold different entity counts.
+        Snapshot base = snapshotAfter(1, 1);
+        Snapshot current = snapshotAfter(240, 9);
+        Snapshot decoded = new Snapshot();
+        assertTrue(SnapshotCodec.decode(payload(current, base), base, decoded));
+        assertSnapshotsEqual(current, decoded);
+    }
+
+    @Test
+    void deltaIsSmallerThanFullSnapshot() {
+        Snapshot base = snapshotAfter(30, 1);
+        Snapshot current = snapshotAfter(31, 2);
+        assertTrue(payload(current, base).remaining() < payload(current, null).remaining());
+    }
+
+    @Test
+    void wrongBaseContentFailsTheHash() throws IOException {
+        Snapshot base = snapshotAfter(30, 1);
+        Snapshot current = snapshotAfter(31, 2);
+        Snapshot otherBase = snapshotAfter(60, 1);
+        otherBase.sequence = base.sequence;
+        assertFalse(SnapshotCodec.decode(payload(current, base), otherBase, new Snapshot()));
+    }
+
+    @Test
+    void wrongBaseSequenceIsRejected() {
+        Snapshot base = snapshotAfter(30, 1);
+        Snapshot current = snapshotAfter(31, 2);
+        Snapshot otherBase = snapshotAfter(30, 3);
+        assertThrows(IOException.class, () -> SnapshotCodec.decode(payload(current, base), otherBase, new Snapshot()));
+        assertThrows(IOException.class, () -> SnapshotCodec.decode(payload(current, base), null, new Snapshot()));
+    }
+
+    @Test
+    void oversizedSectionIsRejectedBeforeItIsAllocated() {
+        // A few bytes claiming more monsters than any stage has, all covered by a single run.
+        int count = StageTable.MAX_MONSTERS + 1;
+        ByteBuffer in = ByteBuffer.allocate(64);
+        for (int value : new int[]{1, 0, 1, Snapshot.STRIDES[Snapshot.HEADER], 0, count,
+                count * Snapshot.STRIDES[Snapshot.MONSTERS]}) {
+            NetProtocol.putVarInt(in, value);
+        }
+        Snapshot target = new Snapshot();
+        assertThrows(IOException.class, () -> SnapshotCodec.decode(in.flip(), null, target));
+        assertTrue(target.values[Snapshot.MONSTERS].length < count);
+    }
+
+    @Test
+    void baseSequenceIsReadWithoutConsuming() throws IOException {
+        Snapshot base = snapshotAfter(30, 4);
+        ByteBuffer in = payload(snapshotAfter(31, 5), base);
+        int position = in.position();
+        assertEquals(4, SnapshotCodec.baseSequence(in));
+        assertEquals(position, in.position());
+    }
+
+    /** A snapshot of a world that walked diagonally for {@code ticks} ticks, so players and monsters have moved. */
+    private static Snapshot snapshotAfter(int ticks, int sequence) {
+        GameWorld world = new GameWorld(960, 640, GameWorld.DEFAULT_TICK_RATE, 42);
+        world.setPlayerInvulnerable(true);
+        world.addPlayer();
+        for (int i = 0; i < ticks; i++) {
+            world.tick(InputMask.toSet(i < ticks / 2 ? 0b0101 : 0b1010));
+        }
+        Snapshot snapshot = new Snapshot();
+        world.writeSnapshot(snapshot, ticks);
+        snapshot.sequence = sequence;
+        return snapshot;
+    }
+
+    /** Encodes a SNAPSHOT frame and returns its payload just past the tag, as a client receives it. */
+    private static ByteBuffer payload(Snapshot current, Snapshot base) {
+        ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        SnapshotCodec.encode(current, base, out);
+        out.flip();
+        out.getInt();
+        assertEquals(NetProtocol.SNAPSHOT, out.get());
+        return out;
+    }
+
+    private static void assertSnapshotsEqual(Snapshot expected, Snapshot actual) {
+        assertEquals(expected.sequence, actual.sequence);
+        for (int s = 0; s < Snapshot.SECTIONS; s++) {
+            assertEquals(expected.counts[s], actual.counts[s], "count of section " + s);
+            int length = expected.counts[s] * Snapshot.STRIDES[s];
+            assertArrayEquals(Arrays.copyOf(expected.values[s], length),
+                    Arrays.copyOf(actual.values[s], length));
+        }
+    }
+}
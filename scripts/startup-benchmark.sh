@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compares cold start of the desktop build on Linux: plain JIT, AppCDS and GraalVM native-image.
+# Each run launches the game, renders one frame after loading and exits; the wall-clock time until the process
+# ends is reported as min and median over the runs.
+#
+#   ./gradlew :lwjgl3:jar :lwjgl3:cdsTrain
+#   ./gradlew -PenableGraalNative=true :lwjgl3:nativeCompile    # optional, needs GraalVM for JDK 24
+#   scripts/startup-benchmark.sh [runs]
+#
+# Without a display, run it under xvfb-run -a.
+set -euo pipefail
+
+runs=${1:-10}
+root=$(cd "$(dirname "$0")/.." && pwd)
+libs="$root/lwjgl3/build/libs"
+jar=$(ls "$libs"/ProjectOOP-*.jar 2>/dev/null | grep -v -- '-\(mac\|linux\|win\)\.jar$' | head -n 1 || true)
+archive="$root/lwjgl3/build/cds/app.jsa"
+native="$root/lwjgl3/build/native/nativeCompile/ProjectOOP"
+java=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ -z "$jar" ]; then
+  echo "No desktop jar in $libs; run ./gradlew :lwjgl3:jar first." >&2
+  exit 1
+fi
+
+cd "$root/assets"
+
+measure() {
+  local name=$1
+  shift
+  local times=()
+  for _ in $(seq "$runs"); do
+    local start end
+    start=$(date +%s%N)
+    "$@" >/dev/null 2>&1
+    end=$(date +%s%N)
+    times+=($(( (end - start) / 1000000 )))
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+  printf '%-8s min %6d ms   median %6d ms\n' "$name" \
+      "$(echo "$sorted" | head -n 1)" "$(echo "$sorted" | sed -n "$(( (runs + 1) / 2 ))p")"
+}
+
+measure jit "$java" -Ddungeon.exitAfterFrames=1 -Xshare:auto -jar "$jar"
+if [ -f "$archive" ]; then
+  measure cds "$java" -Ddungeon.exitAfterFrames=1 -XX:SharedArchiveFile="$archive" -Xshare:auto -jar "$jar"
+else
+  echo "cds      skipped: no archive at $archive (run ./gradlew :lwjgl3:cdsTrain)"
+fi
+if [ -x "$native" ]; then
+  measure native "$native" -Ddungeon.exitAfterFrames=1
+else
+  echo "native   skipped: no binary at $native"
+fi
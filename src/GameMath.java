@@ -1,12 +0,0 @@
-public final class GameMath {
-    private GameMath() {
-    }
-
-    public static double clamp(double value, double min, double max) {
-        return Math.max(min, Math.min(max, value));
-    }
-
-    public static double distance(double x1, double y1, double x2, double y2) {
-        return Math.hypot(x2 - x1, y2 - y1);
-    }
-}
\ No newline at end of file
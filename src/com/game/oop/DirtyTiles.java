@@ -0,0 +1,78 @@
+package com.game.oop;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Tracks which tiles of a canvas layer were drawn into, so the next frame only clears those tiles instead of the
+ * whole layer. Each frame: {@link #clearStale} wipes what the previous frame drew, the renderer draws and
+ * {@link #mark}s its bounds, and {@link #endFrame} turns those marks into the next frame's stale set.
+ */
+final class DirtyTiles {
+    /** Covers stroke width and anti-aliasing that bleed past an entity's nominal bounds. */
+    private static final double PADDING = 3;
+
+    private final double tileSize;
+    private int columns;
+    private int rows;
+    private boolean[] stale = new boolean[0];
+    private boolean[] marked = new boolean[0];
+
+    DirtyTiles(double tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /** Resizes the grid and forgets all marks; the caller must clear the whole layer itself. */
+    void reset(double width, double height) {
+        columns = Math.max(1, (int) Math.ceil(width / tileSize));
+        rows = Math.max(1, (int) Math.ceil(height / tileSize));
+        stale = new boolean[columns * rows];
+        marked = new boolean[columns * rows];
+    }
+
+    void mark(double x, double y, double width, double height) {
+        int minColumn = column(x - PADDING);
+        int maxColumn = column(x + width + PADDING);
+        int minRow = row(y - PADDING);
+        int maxRow = row(y + height + PADDING);
+        for (int r = minRow; r <= maxRow; r++) {
+            int base = r * columns;
+            for (int c = minColumn; c <= maxColumn; c++) {
+                marked[base + c] = true;
+            }
+        }
+    }
+
+    /** Clears the tiles drawn last frame, one {@code clearRect} per horizontal run of stale tiles. */
+    void clearStale(GraphicsContext gc) {
+        for (int r = 0; r < rows; r++) {
+            int base = r * columns;
+            int c = 0;
+            while (c < columns) {
+                if (!stale[base + c]) {
+                    c++;
+                    continue;
+                }
+                int start = c;
+                while (c < columns && stale[base + c]) {
+                    stale[base + c] = false;
+                    c++;
+                }
+                gc.clearRect(start * tileSize, r * tileSize, (c - start) * tileSize, tileSize);
+            }
+        }
+    }
+
+    void endFrame() {
+        boolean[] swap = stale;
+        stale = marked;
+        marked = swap;
+    }
+
+    private int column(double x) {
+        return (int) GameMath.clamp(Math.floor(x / tileSize), 0, columns - 1);
+    }
+
+    private int row(double y) {
+        return (int) GameMath.clamp(Math.floor(y / tileSize), 0, rows - 1);
+    }
+}
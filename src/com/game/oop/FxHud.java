@@ -0,0 +1,106 @@
+package com.game.oop;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+import javafx.stage.Window;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * HUD layer for the JavaFX view. Labels are rasterized once per distinct string into cached images, at the
+ * window's output scale, and a slot is only cleared and redrawn when its text changes.
+ */
+final class FxHud {
+    private static final Font FONT = Font.font("Arial", FontWeight.BOLD, 16);
+    private static final int MAX_CACHED_LABELS = 64;
+    private static final int OVERLAY_SLOT = RenderFrame.HUD_ROWS;
+    private static final double MARGIN = 10;
+    private static final double TOP = 4;
+    private static final double ROW_HEIGHT = 20;
+
+    private final GraphicsContext gc;
+    private final Map<String, Image> labels = new HashMap<>();
+    private final Text text = new Text();
+    private final SnapshotParameters snapshot = new SnapshotParameters();
+    private final String[] drawn = new String[RenderFrame.HUD_ROWS + 1];
+    private final double[] drawnBounds = new double[drawn.length * 4];
+    private double scale = 1;
+
+    FxHud(GraphicsContext gc) {
+        this.gc = gc;
+        text.setFont(FONT);
+        text.setFill(Color.WHITE);
+        snapshot.setFill(Color.TRANSPARENT);
+    }
+
+    /** Clears the layer and forgets what was drawn, e.g. after the canvas was resized. */
+    void invalidate(double width, double height) {
+        gc.clearRect(0, 0, width, height);
+        Arrays.fill(drawn, null);
+        Arrays.fill(drawnBounds, 0);
+        double outputScale = outputScale();
+        if (outputScale != scale) {
+            scale = outputScale;
+            labels.clear();
+        }
+    }
+
+    /** Brings the layer up to date with {@code rows} and the right-aligned {@code overlay} line. */
+    void draw(String[] rows, String overlay, double width) {
+        for (int row = 0; row < RenderFrame.HUD_ROWS; row++) {
+            drawSlot(row, rows[row], MARGIN, TOP + ROW_HEIGHT * row, false);
+        }
+        drawSlot(OVERLAY_SLOT, overlay, width - MARGIN, TOP, true);
+    }
+
+    private void drawSlot(int slot, String value, double x, double y, boolean alignRight) {
+        if (Objects.equals(value, drawn[slot])) {
+            return;
+        }
+        int b = slot * 4;
+        gc.clearRect(drawnBounds[b], drawnBounds[b + 1], drawnBounds[b + 2], drawnBounds[b + 3]);
+        drawn[slot] = value;
+        Arrays.fill(drawnBounds, b, b + 4, 0);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        Image image = label(value);
+        double width = image.getWidth() / scale;
+        double height = image.getHeight() / scale;
+        double left = alignRight ? x - width : x;
+        gc.drawImage(image, left, y, width, height);
+        drawnBounds[b] = left;
+        drawnBounds[b + 1] = y;
+        drawnBounds[b + 2] = width;
+        drawnBounds[b + 3] = height;
+    }
+
+    private Image label(String value) {
+        Image image = labels.get(value);
+        if (image == null) {
+            if (labels.size() >= MAX_CACHED_LABELS) {
+                labels.clear();
+            }
+            text.setText(value);
+            snapshot.setTransform(Transform.scale(scale, scale));
+            image = text.snapshot(snapshot, null);
+            labels.put(value, image);
+        }
+        return image;
+    }
+
+    private double outputScale() {
+        Window window = gc.getCanvas().getScene() == null ? null : gc.getCanvas().getScene().getWindow();
+        return window == null ? 1 : window.getOutputScaleX();
+    }
+}
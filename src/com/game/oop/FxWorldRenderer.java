@@ -0,0 +1,217 @@
+package com.game.oop;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws frames onto three stacked canvases. The background layer (floor, dungeon walls and visible doors) is
+ * repainted only when the layout, the set of visible doors or the scrolled view changes, the entity layer clears
+ * just the tiles it drew into last frame, and the HUD layer is repainted only when its text changes. Everything
+ * is drawn relative to the frame's view, which only moves on dungeon stages.
+ */
+final class FxWorldRenderer implements FrameRenderer {
+    private static final Color PROJECTILE_COLOR = Color.rgb(255, 80, 80, 0.95);
+    private static final Color TELEGRAPH_COLOR = Color.rgb(190, 0, 255, 0.7);
+    private static final Color[] DOOR_COLORS = {Color.LIMEGREEN, Color.SALMON, Color.DIMGRAY};
+    private static final Color FLOOR_COLOR = Color.rgb(30, 30, 35);
+    private static final Color WALL_COLOR = Color.rgb(12, 12, 16);
+    private static final double TILE_SIZE = 64;
+
+    private final GraphicsContext background;
+    private final GraphicsContext gc;
+    private final FxHud hud;
+    private final DirtyTiles dirtyTiles = new DirtyTiles(TILE_SIZE);
+    private final Color[] bodyColors;
+    private final Color[] shadowColors;
+
+    private double layerWidth = -1;
+    private double layerHeight = -1;
+    private int drawnLayoutVersion = -1;
+    private double[] drawnDoors = new double[0];
+    private int drawnDoorValues;
+    private double viewX;
+    private double viewY;
+    private double drawnViewX = -1;
+    private double drawnViewY = -1;
+    private String overlay;
+
+    FxWorldRenderer(GraphicsContext background, GraphicsContext entities, GraphicsContext hud) {
+        this.background = background;
+        this.gc = entities;
+        this.hud = new FxHud(hud);
+        MonsterKind[] kinds = MonsterKind.values();
+        bodyColors = new Color[kinds.length];
+        shadowColors = new Color[kinds.length];
+        for (MonsterKind kind : kinds) {
+            bodyColors[kind.ordinal()] = color(kind.bodyColor);
+            shadowColors[kind.ordinal()] = color(kind.shadowColor);
+        }
+    }
+
+    @Override
+    public void render(RenderFrame frame) {
+        double canvasWidth = gc.getCanvas().getWidth();
+        double canvasHeight = gc.getCanvas().getHeight();
+        boolean resized = canvasWidth != layerWidth || canvasHeight != layerHeight;
+        if (resized) {
+            layerWidth = canvasWidth;
+            layerHeight = canvasHeight;
+            gc.clearRect(0, 0, canvasWidth, canvasHeight);
+            dirtyTiles.reset(canvasWidth, canvasHeight);
+            hud.invalidate(canvasWidth, canvasHeight);
+        } else {
+            dirtyTiles.clearStale(gc);
+        }
+
+        viewX = frame.viewX();
+        viewY = frame.viewY();
+        if (resized || frame.layoutVersion != drawnLayoutVersion || viewX != drawnViewX || viewY != drawnViewY
+                || !sameDoors(frame)) {
+            drawBackground(frame);
+        }
+
+        drawPlayer(frame);
+        drawMonsters(frame);
+        drawRings(frame);
+        drawProjectiles(frame);
+        dirtyTiles.endFrame();
+        hud.draw(frame.hud, overlay, layerWidth);
+    }
+
+    /** Extra right-aligned HUD line such as frame statistics; {@code null} hides it. */
+    void setOverlay(String overlay) {
+        this.overlay = overlay;
+    }
+
+    private void drawBackground(RenderFrame frame) {
+        background.clearRect(0, 0, layerWidth, layerHeight);
+        background.setFill(FLOOR_COLOR);
+        background.fillRect(-viewX, -viewY, frame.worldWidth, frame.worldHeight);
+        drawWalls(frame);
+        drawDoors(frame);
+        rememberDoors(frame);
+        drawnLayoutVersion = frame.layoutVersion;
+        drawnViewX = viewX;
+        drawnViewY = viewY;
+    }
+
+    /** One rectangle per horizontal run of wall tiles. */
+    private void drawWalls(RenderFrame frame) {
+        double size = frame.tileSize;
+        background.setFill(WALL_COLOR);
+        for (int r = 0; r < frame.tileRows; r++) {
+            int base = r * frame.tileColumns;
+            double y = (frame.tileRow + r) * size - viewY;
+            int c = 0;
+            while (c < frame.tileColumns) {
+                if (frame.tiles[base + c] != TileMap.WALL) {
+                    c++;
+                    continue;
+                }
+                int start = c;
+                while (c < frame.tileColumns && frame.tiles[base + c] == TileMap.WALL) {
+                    c++;
+                }
+                background.fillRect((frame.tileColumn + start) * size - viewX, y, (c - start) * size, size);
+            }
+        }
+    }
+
+    private void drawPlayer(RenderFrame frame) {
+        for (int i = 0; i < frame.otherCount; i++) {
+            fillPlayer(frame.otherDrawX(i) - viewX, frame.otherDrawY(i) - viewY, frame.playerSize,
+                    frame.otherStunned[i] ? Color.rgb(220, 220, 255, 0.7) : Color.rgb(245, 215, 110));
+        }
+        fillPlayer(frame.playerDrawX() - viewX, frame.playerDrawY() - viewY, frame.playerSize,
+                frame.playerStunned ? Color.rgb(220, 220, 255, 0.7) : Color.WHITESMOKE);
+    }
+
+    private void fillPlayer(double x, double y, double size, Color color) {
+        gc.setFill(color);
+        gc.fillRect(x, y, size, size);
+        dirtyTiles.mark(x, y, size, size);
+    }
+
+    private void drawDoors(RenderFrame frame) {
+        for (int i = 0; i < frame.doorCount; i++) {
+            background.setFill(DOOR_COLORS[frame.doorType[i]]);
+            RectangleRenderer.fill(background, frame.doorX[i] - viewX, frame.doorY[i] - viewY, frame.doorSize[i],
+                    frame.doorSize[i]);
+        }
+    }
+
+    private boolean sameDoors(RenderFrame frame) {
+        if (frame.doorCount * 4 != drawnDoorValues) {
+            return false;
+        }
+        for (int i = 0, j = 0; i < frame.doorCount; i++, j += 4) {
+            if (drawnDoors[j] != frame.doorX[i] || drawnDoors[j + 1] != frame.doorY[i]
+                    || drawnDoors[j + 2] != frame.doorSize[i] || drawnDoors[j + 3] != frame.doorType[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rememberDoors(RenderFrame frame) {
+        drawnDoorValues = frame.doorCount * 4;
+        if (drawnDoors.length < drawnDoorValues) {
+            drawnDoors = new double[drawnDoorValues];
+        }
+        for (int i = 0, j = 0; i < frame.doorCount; i++, j += 4) {
+            drawnDoors[j] = frame.doorX[i];
+            drawnDoors[j + 1] = frame.doorY[i];
+            drawnDoors[j + 2] = frame.doorSize[i];
+            drawnDoors[j + 3] = frame.doorType[i];
+        }
+    }
+
+    private void drawMonsters(RenderFrame frame) {
+        gc.setLineWidth(2);
+        for (int i = 0; i < frame.monsterCount; i++) {
+            double x = frame.monsterDrawX(i) - viewX;
+            double y = frame.monsterDrawY(i) - viewY;
+            double radius = frame.monsterRadius[i];
+            gc.setFill(bodyColors[frame.monsterKind[i]]);
+            gc.setStroke(shadowColors[frame.monsterKind[i]]);
+            gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+            gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
+            dirtyTiles.mark(x - radius, y - radius, radius * 2, radius * 2);
+        }
+    }
+
+    private void drawRings(RenderFrame frame) {
+        for (int i = 0; i < frame.ringCount; i++) {
+            double x = frame.ringDrawX(i) - viewX;
+            double y = frame.ringDrawY(i) - viewY;
+            double radius = frame.ringRadius[i];
+            if (frame.ringStyle[i] == RenderFrame.RING_TELEGRAPH) {
+                gc.setStroke(TELEGRAPH_COLOR);
+                gc.setLineWidth(3);
+                gc.setLineDashes(6, 8);
+                gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
+                gc.setLineDashes();
+            } else {
+                gc.setStroke(Color.CYAN);
+                gc.setLineWidth(2);
+                gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
+            }
+            dirtyTiles.mark(x - radius, y - radius, radius * 2, radius * 2);
+        }
+    }
+
+    private void drawProjectiles(RenderFrame frame) {
+        gc.setFill(PROJECTILE_COLOR);
+        for (int i = 0; i < frame.projectileCount; i++) {
+            double radius = frame.projectileRadius[i];
+            double x = frame.projectileDrawX(i) - viewX - radius;
+            double y = frame.projectileDrawY(i) - viewY - radius;
+            gc.fillOval(x, y, radius * 2, radius * 2);
+            dirtyTiles.mark(x, y, radius * 2, radius * 2);
+        }
+    }
+
+    private static Color color(int rgba) {
+        return Color.rgb((rgba >>> 24) & 0xFF, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, (rgba & 0xFF) / 255.0);
+    }
+}
@@ -0,0 +1,157 @@
+package com.game.oop;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.Pane;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+final class GameView extends Pane {
+    private final Canvas background;
+    private final Canvas entities;
+    private final Canvas hud;
+    private final SimulationLoop simulation;
+    private final ReplayRecorder recorder;
+    private final StageTableWatcher stageWatcher;
+    private final FxWorldRenderer renderer;
+    private final FrameStats frameStats = new FrameStats();
+    private final TickProfiler simulationProfiler;
+    private final TickProfiler renderProfiler = new TickProfiler("render");
+    /** Movement keys that are down, so JavaFX's auto-repeated presses reach the {@link InputQueue} only once. */
+    private final Set<KeyCode> keysDown = EnumSet.noneOf(KeyCode.class);
+
+    private AnimationTimer timer;
+    private boolean showFrameStats;
+    private double requestedWidth;
+    private double requestedHeight;
+
+    GameView() {
+        this.background = new Canvas(960, 640);
+        this.entities = new Canvas(960, 640);
+        this.hud = new Canvas(960, 640);
+        GameWorld world = new GameWorld(entities.getWidth(), entities.getHeight(), GameWorld.DEFAULT_TICK_RATE,
+                GameWorld.configuredSeed());
+        this.recorder = ReplayRecorder.attachIfRequested(world);
+        Path stageFile = StageTableWatcher.locate();
+        this.stageWatcher = stageFile == null ? null : StageTableWatcher.start(stageFile, world::offerStageTable);
+        this.simulationProfiler = world.getProfiler();
+        this.simulation = new SimulationLoop(world);
+        this.renderer = new FxWorldRenderer(background.getGraphicsContext2D(), entities.getGraphicsContext2D(),
+                hud.getGraphicsContext2D());
+
+        getChildren().addAll(background, entities, hud);
+        setFocusTraversable(true);
+
+        setOnMouseClicked(event -> requestFocus());
+        setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.F3) {
+                showFrameStats = !showFrameStats;
+                renderer.setOverlay(showFrameStats ? overlayText() : null);
+                return;
+            }
+            if (event.getCode() == KeyCode.F5) {
+                simulation.requestQuickSave();
+                return;
+            }
+            if (event.getCode() == KeyCode.F9) {
+                simulation.requestQuickLoad();
+                return;
+            }
+            GameWorld.Input input = mapKey(event.getCode());
+            if (input != null && keysDown.add(event.getCode())) {
+                simulation.inputs().press(input, System.nanoTime());
+            }
+        });
+        setOnKeyReleased(event -> {
+            GameWorld.Input input = mapKey(event.getCode());
+            if (input != null && keysDown.remove(event.getCode())) {
+                simulation.inputs().release(input, System.nanoTime());
+            }
+        });
+        focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                keysDown.clear();
+                simulation.inputs().releaseAll(System.nanoTime());
+            }
+        });
+
+        widthProperty().addListener((obs, oldV, newV) -> resizeWorld());
+        heightProperty().addListener((obs, oldV, newV) -> resizeWorld());
+
+        startLoop();
+    }
+
+    private void startLoop() {
+        simulation.start();
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (frameStats.frame(now) && showFrameStats) {
+                    renderer.setOverlay(overlayText());
+                }
+                RenderFrame frame = simulation.frames().acquireLatest();
+                if (frame != null) {
+                    long start = System.nanoTime();
+                    frame.alpha = frame.alphaAt(start);
+                    renderer.render(frame);
+                    renderProfiler.endTick(renderProfiler.lap(TickProfiler.Phase.DRAW, start));
+                }
+            }
+        };
+        timer.start();
+    }
+
+    private String overlayText() {
+        return frameStats.summary() + "\n" + simulationProfiler.overlay() + "\n" + renderProfiler.overlay();
+    }
+
+    void shutdown() {
+        timer.stop();
+        simulation.stop();
+        if (stageWatcher != null) {
+            stageWatcher.stop();
+        }
+        if (recorder != null) {
+            recorder.saveRequested();
+        }
+    }
+
+    /** Layout passes run far more often than the size changes, so unchanged sizes are dropped here. */
+    private void resizeWorld() {
+        double width = Math.max(400, getWidth());
+        double height = Math.max(300, getHeight());
+        if (width == requestedWidth && height == requestedHeight) {
+            return;
+        }
+        requestedWidth = width;
+        requestedHeight = height;
+        sizeLayers(width, height);
+        simulation.requestResize(width, height);
+    }
+
+    private void sizeLayers(double width, double height) {
+        for (Canvas layer : new Canvas[]{background, entities, hud}) {
+            layer.setWidth(width);
+            layer.setHeight(height);
+        }
+    }
+
+    private GameWorld.Input mapKey(KeyCode code) {
+        return switch (code) {
+            case W, UP -> GameWorld.Input.UP;
+            case S, DOWN -> GameWorld.Input.DOWN;
+            case A, LEFT -> GameWorld.Input.LEFT;
+            case D, RIGHT -> GameWorld.Input.RIGHT;
+            default -> null;
+        };
+    }
+
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        resizeWorld();
+    }
+}
\ No newline at end of file
@@ -1,12 +1,15 @@
+package com.game.oop;
+
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 public class MainApp extends Application {
+    private GameView gameView;
 
     @Override
     public void start(Stage primaryStage) {
-        GameView gameView = new GameView();
+        gameView = new GameView();
         Scene scene = new Scene(gameView);
         primaryStage.setTitle("Dungeon Escape - JavaFX");
         primaryStage.setScene(scene);
@@ -16,6 +19,13 @@ public class MainApp extends Application {
         gameView.requestFocus();
     }
 
+    @Override
+    public void stop() {
+        if (gameView != null) {
+            gameView.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
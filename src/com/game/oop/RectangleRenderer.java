@@ -0,0 +1,12 @@
+package com.game.oop;
+
+import javafx.scene.canvas.GraphicsContext;
+
+final class RectangleRenderer {
+    private RectangleRenderer() {
+    }
+
+    static void fill(GraphicsContext gc, double x, double y, double width, double height) {
+        gc.fillRect(x, y, width, height);
+    }
+}
\ No newline at end of file